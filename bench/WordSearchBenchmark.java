@@ -0,0 +1,392 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The benchmark suite of the generator, measuring the generation of a puzzle, the overlap check of two words, the
+ * randomizer, and the rendering, binary archiving and verification of a puzzle over grid sizes, fill densities and
+ * alphabets.
+ *
+ * The operations are created by {@link #workload(String, String, int, double)}, which the JMH benchmarks of the jmh
+ * source set measure too: the jmh task of the Gradle build runs them in forked JVMs with the gc profiler, and its
+ * results are the ones to compare between runs. This class measures the same operations in a single JVM, for a quick
+ * look without the build: every benchmark is warmed up first and then run for a fixed time, reporting its throughput,
+ * the bytes it allocates per operation (measured on the benchmark thread, on JVMs supporting it) and, for the
+ * generation, the rate of failing puzzles. Results can be written to a CSV file and compared with a CSV file of an
+ * earlier run.
+ *
+ * Takes these optional command line arguments:
+ * -time milliseconds   The measuring time of each benchmark, 2000 by default (warming up takes half of it).
+ * -csv path            Path to write the results to.
+ * -baseline path       Path to the results of an earlier run, to print the change of each throughput against it.
+ * -quick               Runs only the smallest configurations, as a smoke test.
+ */
+public class WordSearchBenchmark {
+    private static final int[] SIZES = {20, 50, 200};
+    private static final double[] DENSITIES = {0.3, 0.5};
+    private static final String[] LANGUAGES = {"EN", "TR"};
+    private static final String[] PUZZLE_BENCHMARKS = {"generation", "generationReused", "generationDense",
+            "generationMedium", "render", "renderFormats", "archive", "verify"};
+
+    /**
+     * The sink of the benchmark results, so that the JIT cannot remove the benchmarked code.
+     */
+    private static volatile long sink;
+
+    private final long measureNanos;
+    private final List<String[]> results = new ArrayList<>();
+
+    private WordSearchBenchmark(long measureMillis) {
+        this.measureNanos = measureMillis * 1_000_000L;
+    }
+
+    /**
+     * Main method of the benchmark suite.
+     * @param args Command line arguments, described in the class documentation.
+     */
+    public static void main(String[] args) throws IOException {
+        long time = 2000;
+        String csv = null, baseline = null;
+        boolean quick = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-time":
+                    time = Long.parseLong(args[++i]);
+                    break;
+                case "-csv":
+                    csv = args[++i];
+                    break;
+                case "-baseline":
+                    baseline = args[++i];
+                    break;
+                case "-quick":
+                    quick = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        WordSearchBenchmark benchmark = new WordSearchBenchmark(time);
+        Map<String, Double> baselineScores = baseline == null ? new HashMap<>() : readScores(baseline);
+
+        System.out.printf("%-44s %14s %14s %10s %10s%n", "benchmark", "ops/s", "bytes/op", "failures", "vs base");
+        for (String language : LANGUAGES) {
+            for (int size : quick ? new int[]{SIZES[0]} : SIZES) {
+                for (double density : quick ? new double[]{DENSITIES[0]} : DENSITIES) {
+                    String config = String.format(Locale.ROOT, "%s/%dx%d/%.0f%%", language, size, size, density * 100);
+                    for (String name : PUZZLE_BENCHMARKS) {
+                        benchmark.measure(name + "/" + config, baselineScores, create(name, language, size, density));
+                    }
+                }
+            }
+            benchmark.measure("overlappable/" + language, baselineScores, create("overlappable", language, 0, 0));
+        }
+        benchmark.measure("randomizer/seeded", baselineScores, create("randomizerSeeded", null, 0, 0));
+        benchmark.measure("randomizer/threadLocal", baselineScores, create("randomizerThreadLocal", null, 0, 0));
+
+        if (csv != null) {
+            try (Writer writer = Files.newBufferedWriter(Paths.get(csv))) {
+                writer.write("benchmark,opsPerSecond,bytesPerOp,failureRate\n");
+                for (String[] result : benchmark.results) {
+                    writer.write(String.join(",", result) + "\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the operation of the given benchmark, as measured by this suite and by the JMH benchmarks of the
+     * benchmarks package, which cannot refer to the classes of the generator themselves.
+     * @param benchmark The benchmark: generation, generationReused, generationDense, generationMedium, render,
+     *                  renderFormats, archive, verify, overlappable, randomizerSeeded or randomizerThreadLocal.
+     * @param language  The language of the words; the randomizer benchmarks ignore it.
+     * @param size      The height and width of the puzzle; only the benchmarks of a puzzle take it.
+     * @param density   The share of the cells of the puzzle its words cover; only the benchmarks of a puzzle take it.
+     * @return The operation, returning -1 if it fails with a {@link PuzzleException} and otherwise a value depending on
+     *         its result. It is also {@link AutoCloseable}, to be closed once it is measured.
+     * @throws IllegalArgumentException If there is no benchmark with the given name.
+     */
+    public static LongSupplier workload(String benchmark, String language, int size, double density) {
+        return create(benchmark, language, size, density);
+    }
+
+    /**
+     * Creates the operation of the given benchmark, see {@link #workload(String, String, int, double)}.
+     */
+    private static Workload create(String benchmark, String language, int size, double density) {
+        switch (benchmark) {
+            case "overlappable":
+                return new Workload(overlappable(language), null);
+            case "randomizerSeeded":
+                Randomizer seeded = Randomizer.seeded(1);
+                return new Workload(() -> seeded.randomNumber(1000), null);
+            case "randomizerThreadLocal":
+                Randomizer threadLocal = Randomizer.threadLocal();
+                return new Workload(() -> threadLocal.randomNumber(1000), null);
+            default:
+                return puzzleWorkload(benchmark, wordList(language, size, density), size, language);
+        }
+    }
+
+    /**
+     * Creates the operation of a benchmark of a puzzle of the given words.
+     */
+    private static Workload puzzleWorkload(String benchmark, String[] words, int size, String language) {
+        long[] seed = {0};
+        switch (benchmark) {
+            case "generation": //With the WordSearchGrid constructor alone.
+                return new Workload(() -> {
+                    GenerationSettings settings = new GenerationSettings().setSeed(seed[0]++);
+                    return new WordSearchGrid(words, size, size, language, true, settings).getWidth();
+                }, null);
+            case "generationReused": { //With one context reused, so that the bytes per operation are the puzzle's.
+                GeneratorContext context = new GeneratorContext();
+                return new Workload(() -> {
+                    GenerationSettings settings = new GenerationSettings().setSeed(seed[0]++);
+                    return new WordSearchGrid(words, size, size, language, true, settings, context).getWidth();
+                }, context);
+            }
+            case "generationDense": { //Shrinking the grid towards 70% of its cells covered by words.
+                GeneratorContext context = new GeneratorContext();
+                return new Workload(() -> {
+                    GenerationSettings settings = new GenerationSettings().setSeed(seed[0]++).setPlacementMode(PlacementMode.DENSE).setTargetDensity(0.7);
+                    return new WordSearchGrid(words, size, size, language, true, settings, context).getWidth();
+                }, context);
+            }
+            case "generationMedium": { //With limits met while the placements are found.
+                GeneratorContext context = new GeneratorContext();
+                return new Workload(() -> {
+                    GenerationSettings settings = new GenerationSettings().setSeed(seed[0]++).setDifficulty(DifficultyProfile.MEDIUM);
+                    return new WordSearchGrid(words, size, size, language, true, settings, context).getWidth();
+                }, context);
+            }
+            default:
+                break;
+        }
+
+        WordSearchGrid puzzle = null;
+        for (long attempt = 0; puzzle == null; attempt++) {
+            try {
+                puzzle = new WordSearchGrid(words, size, size, language, true, new GenerationSettings().setSeed(attempt));
+            } catch (PuzzleException ignored) { //Dense configurations may need a few seeds to succeed.
+            }
+        }
+        WordSearchGrid rendered = puzzle;
+        switch (benchmark) {
+            case "render": //To text, with the solution.
+                return new Workload(() -> rendered.toString().length(), null);
+            case "renderFormats": //All the formats from one layout, computed again each time as a new puzzle needs it.
+                return new Workload(renderFormats(rendered), null);
+            case "archive": { //The binary round trip, through one reused buffer as an archive writer does.
+                ByteBuffer[] buffer = {null};
+                return new Workload(() -> {
+                    buffer[0] = PuzzleArchive.encode(rendered, buffer[0]);
+                    return PuzzleArchive.decode(buffer[0]).getWidth();
+                }, null);
+            }
+            case "verify":
+                return new Workload(() -> PuzzleVerifier.verify(benchmark, rendered).getMissing().size(), null);
+            default:
+                throw new IllegalArgumentException("Unknown benchmark: " + benchmark);
+        }
+    }
+
+    /**
+     * @return The rendering of the given puzzle in all the formats, into a writer only counting the characters.
+     */
+    private static Operation renderFormats(WordSearchGrid puzzle) {
+        PuzzleRenderer[] renderers = {new TextRenderer(), new HtmlRenderer(), new SvgRenderer(), new HighlightRenderer()};
+        long[] written = {0};
+        Writer counter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                written[0] += length;
+            }
+
+            @Override
+            public void write(String text) {
+                written[0] += text.length();
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return () -> {
+            PuzzleLayout layout = new PuzzleLayout(puzzle);
+            try {
+                for (PuzzleRenderer renderer : renderers) {
+                    renderer.render(layout, counter);
+                }
+            } catch (IOException e) { //The counting writer does not throw IOException.
+                throw new UncheckedIOException(e);
+            }
+            return (int) written[0];
+        };
+    }
+
+    /**
+     * @return The overlap check of two words placed at random.
+     */
+    private static Operation overlappable(String language) {
+        Randomizer randomizer = Randomizer.seeded(7);
+        Word[] placedWords = new Word[256];
+        String[] words = wordList(language, 20, 1);
+        for (int i = 0; i < placedWords.length; i++) {
+            placedWords[i] = new Word(words[i % words.length], 20, 20, language, randomizer);
+        }
+        int[] index = {0};
+        return () -> {
+            int i = index[0]++;
+            return placedWords[i & 255].overlappable(placedWords[(i * 31 + 7) & 255]) ? 1 : 0;
+        };
+    }
+
+    /**
+     * Runs the given operation for the warm-up and the measuring time, then prints and records its results and closes
+     * it.
+     */
+    private void measure(String name, Map<String, Double> baseline, Workload operation) {
+        run(operation, measureNanos / 2);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocatedBefore = allocatedBytes(threads);
+        long[] counts = run(operation, measureNanos);
+        long allocated = allocatedBytes(threads) - allocatedBefore;
+
+        long operations = counts[0], failures = counts[1], nanos = counts[2];
+        double opsPerSecond = operations * 1e9 / nanos;
+        double bytesPerOp = allocatedBefore < 0 ? Double.NaN : (double) allocated / operations;
+        double failureRate = (double) failures / operations;
+        Double base = baseline.get(name);
+
+        System.out.printf(Locale.ROOT, "%-44s %14.1f %14.1f %9.1f%% %10s%n", name, opsPerSecond, bytesPerOp,
+                failureRate * 100, base == null ? "" : String.format(Locale.ROOT, "%+.1f%%", (opsPerSecond / base - 1) * 100));
+        results.add(new String[]{name, String.format(Locale.ROOT, "%.3f", opsPerSecond),
+                String.format(Locale.ROOT, "%.1f", bytesPerOp), String.format(Locale.ROOT, "%.4f", failureRate)});
+        operation.close();
+    }
+
+    /**
+     * Runs the given operation repeatedly for the given time.
+     * @return The amount of operations, the amount of failed operations and the time taken, in nanoseconds.
+     */
+    private static long[] run(Workload operation, long nanos) {
+        long operations = 0, failures = 0, result = 0;
+        long start = System.nanoTime(), end = start + nanos, now;
+        do {
+            //Operations are timed in groups, so that reading the clock does not dominate the fast ones.
+            for (int i = 0; i < 64; i++) {
+                long value = operation.getAsLong();
+                if (value < 0) {
+                    failures++;
+                } else {
+                    result += value;
+                }
+            }
+            operations += 64;
+        } while ((now = System.nanoTime()) < end);
+        sink += result;
+        return new long[]{operations, failures, now - start};
+    }
+
+    /**
+     * @return The bytes allocated by the current thread so far, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a reproducible list of random words from the given alphabet, with lengths between 4 and 10, whose
+     * letters cover about the given fraction of a square grid of the given size.
+     */
+    private static String[] wordList(String language, int size, double density) {
+        Randomizer randomizer = Randomizer.seeded(size * 31L + language.hashCode());
+        Alphabet alphabet = AlphabetRegistry.get(language);
+        List<String> words = new ArrayList<>();
+        for (int letters = 0; letters < size * size * density; ) {
+            StringBuilder word = new StringBuilder();
+            int length = randomizer.randomNumber(4, Math.min(10, size - 1) + 1);
+            for (int k = 0; k < length; k++) {
+                word.append(alphabet.letterAt(randomizer.randomNumber(alphabet.size())));
+            }
+            words.add(word.toString());
+            letters += length;
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the throughputs of an earlier run from its CSV file.
+     */
+    private static Map<String, Double> readScores(String path) throws IOException {
+        Map<String, Double> scores = new HashMap<>();
+        List<String> lines = Files.readAllLines(Paths.get(path));
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            scores.put(fields[0], Double.parseDouble(fields[1]));
+        }
+        return scores;
+    }
+
+    /**
+     * The interface of a benchmarked operation.
+     */
+    private interface Operation {
+        /**
+         * @return A value depending on the result of the operation, consumed by the benchmark.
+         * @throws PuzzleException If the operation fails, counted as a failure.
+         */
+        long run();
+    }
+
+    /**
+     * The class of a benchmarked operation as handed out by {@link #workload(String, String, int, double)}, counting a
+     * {@link PuzzleException} as a failed operation and closing the context the operation reuses, if any.
+     */
+    private static final class Workload implements LongSupplier, AutoCloseable {
+        private final Operation operation;
+        private final GeneratorContext context;
+
+        private Workload(Operation operation, GeneratorContext context) {
+            this.operation = operation;
+            this.context = context;
+        }
+
+        @Override
+        public long getAsLong() {
+            try {
+                return operation.run();
+            } catch (PuzzleException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The JMH benchmarks of the generator, measuring the operations of WordSearchBenchmark in forked, warmed up JVMs, run by
+ * the jmh task of the Gradle build with the gc profiler for the allocation rate and bytes per operation. Each benchmark
+ * reports its throughput and, as the failures counter in operations per second, how many of its operations failed with
+ * a PuzzleException; the failure rate is the failures divided by the throughput. The results are written to a CSV file
+ * that can be compared with the one of an earlier run.
+ *
+ * JMH does not take benchmarks of the default package, where the generator is, and a class of a package cannot refer
+ * to one of the default package, so the operations are created through reflection, once per trial, and measured
+ * through {@link LongSupplier}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WordSearchJmh {
+    /**
+     * Benchmarks an operation on a puzzle: its generation, in several ways, and the rendering, binary archiving and
+     * verification of a generated one.
+     */
+    @Benchmark
+    public long puzzle(PuzzleState state, Failures failures) {
+        return failures.count(state.operation.getAsLong());
+    }
+
+    /**
+     * Benchmarks the overlap check of two words placed at random.
+     */
+    @Benchmark
+    public long overlappable(OverlapState state) {
+        return state.operation.getAsLong();
+    }
+
+    /**
+     * Benchmarks drawing random numbers from a randomizer.
+     */
+    @Benchmark
+    public long randomizer(RandomizerState state) {
+        return state.operation.getAsLong();
+    }
+
+    /**
+     * The state of the benchmarks of a puzzle.
+     */
+    @State(Scope.Thread)
+    public static class PuzzleState {
+        @Param({"generation", "generationReused", "generationDense", "generationMedium", "render", "renderFormats", "archive", "verify"})
+        public String benchmark;
+
+        @Param({"EN", "TR"})
+        public String language;
+
+        @Param({"20", "50", "200"})
+        public int size;
+
+        @Param({"0.3", "0.5"})
+        public double density;
+
+        LongSupplier operation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            operation = workload(benchmark, language, size, density);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            ((AutoCloseable) operation).close();
+        }
+    }
+
+    /**
+     * The state of the overlap check benchmark.
+     */
+    @State(Scope.Thread)
+    public static class OverlapState {
+        @Param({"EN", "TR"})
+        public String language;
+
+        LongSupplier operation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            operation = workload("overlappable", language, 0, 0);
+        }
+    }
+
+    /**
+     * The state of the randomizer benchmark.
+     */
+    @State(Scope.Thread)
+    public static class RandomizerState {
+        @Param({"randomizerSeeded", "randomizerThreadLocal"})
+        public String randomizer;
+
+        LongSupplier operation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            operation = workload(randomizer, null, 0, 0);
+        }
+    }
+
+    /**
+     * The counter of the operations that failed, reported next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Failures {
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            failures = 0;
+        }
+
+        /**
+         * @param result The result of an operation, -1 if it failed.
+         * @return The result.
+         */
+        long count(long result) {
+            if (result < 0) {
+                failures++;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Creates the operation of the given benchmark through WordSearchBenchmark.workload.
+     */
+    private static LongSupplier workload(String benchmark, String language, int size, double density) {
+        try {
+            return (LongSupplier) Class.forName("WordSearchBenchmark")
+                    .getMethod("workload", String.class, String.class, int.class, double.class)
+                    .invoke(null, benchmark, language, size, density);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("WordSearchBenchmark is not on the class path", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The class drawing indices at random with given weights in O(1) per draw, by the alias method (Vose's variant): each
+ * index owns a column of the same height, filled up to its weight and topped up by one other index, its alias. A draw
+ * picks a column uniformly and then either the column's index or its alias. A sampler does not change once it is built,
+ * so it can be used by many threads at once.
+ *
+ * If all the weights are equal, a draw is a single {@link Randomizer#randomNumber(int)}, the same draw as picking an
+ * element of an array uniformly.
+ */
+public class AliasSampler {
+    /**
+     * The height of a column, as the bound of the random number deciding between an index and its alias.
+     */
+    private static final int COLUMN = 1 << 30;
+
+    private final int size;
+    private final int[] thresholds, aliases;
+    private final boolean uniform;
+
+    /**
+     * Constructor for a sampler of the given weights.
+     * @param weights The weight of each index, positive.
+     * @throws IllegalArgumentException If there are no weights or one of them is not positive.
+     */
+    public AliasSampler(double[] weights) {
+        size = weights.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("No weights to sample");
+        }
+        double total = 0;
+        boolean equal = true;
+        for (double weight : weights) {
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight (" + weight + ")");
+            }
+            total += weight;
+            equal &= weight == weights[0];
+        }
+        uniform = equal;
+        thresholds = new int[size];
+        aliases = new int[size];
+
+        //The columns under the average height are topped up by the ones over it, which shrink by the same amount.
+        double[] heights = new double[size];
+        int[] small = new int[size], large = new int[size];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            heights[i] = weights[i] * size / total;
+            if (heights[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int under = small[--smallCount], over = large[--largeCount];
+            thresholds[under] = (int) Math.round(heights[under] * COLUMN);
+            aliases[under] = over;
+            heights[over] -= 1 - heights[under];
+            if (heights[over] < 1) {
+                small[smallCount++] = over;
+            } else {
+                large[largeCount++] = over;
+            }
+        }
+        //Whatever is left is full up to rounding errors.
+        while (largeCount > 0) {
+            thresholds[large[--largeCount]] = COLUMN;
+        }
+        while (smallCount > 0) {
+            thresholds[small[--smallCount]] = COLUMN;
+        }
+    }
+
+    /**
+     * Draws an index.
+     * @param randomizer The random source of the draw.
+     * @return An index, each one as likely as its weight makes it.
+     */
+    public int sample(Randomizer randomizer) {
+        int column = randomizer.randomNumber(size);
+        if (uniform || thresholds[column] == COLUMN) {
+            return column;
+        }
+        return randomizer.randomNumber(COLUMN) < thresholds[column] ? column : aliases[column];
+    }
+
+    /**
+     * @return The amount of indices, the bound of the indices drawn.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if all the indices are as likely, so that a draw takes a single random number.
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+}
@@ -0,0 +1,295 @@
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The class representing the alphabet of a language: the letters the cells of its puzzles are filled with, compiled
+ * into a table of chars with an index of each letter by its char, and the weight of each letter in a
+ * frequency-weighted fill. Alphabets are defined by text files and found by their language through
+ * {@link AlphabetRegistry}.
+ *
+ * An alphabet file has a letter on each line, optionally followed by its weight, e.g. "E 12.70"; letters without a
+ * weight weigh 1. Empty lines and lines starting with # are skipped. Letters are normalized to NFC, so a letter may be
+ * written as a sequence of code points, like I followed by a combining dot above, and is then the single char it
+ * composes into.
+ *
+ * A letter that is still more than one char, e.g. a letter with no single code point, a letter out of the Basic
+ * Multilingual Plane or a digraph counted as one letter, takes a cell all the same: it is given a char of its own in
+ * the Private Use Area, from {@value #FIRST_COMPOSITE_CODE} on, which the cells and the letters of the words hold
+ * instead (see {@link #encode(String)}), and which is written out as the letter again (see {@link #spell(char)}).
+ */
+public class Alphabet {
+    /**
+     * The char of the first letter of more than one char; the others follow it, in the order of their indices.
+     */
+    public static final char FIRST_COMPOSITE_CODE = '\uE000';
+
+    private final String language;
+    private final char[] letters;
+    private final double[] weights;
+
+    /**
+     * The letters of more than one char, by their char less {@link #FIRST_COMPOSITE_CODE}.
+     */
+    private final String[] composites;
+
+    /**
+     * The positions of the letters of more than one char in {@link #composites}, longest first, as they are matched in
+     * a text.
+     */
+    private final int[] compositesLongestFirst;
+
+    /**
+     * The index of each letter by its char, or -1 for the chars out of the alphabet.
+     */
+    private final int[] indices;
+    private final AliasSampler uniformSampler, frequencySampler;
+    private final int checksum;
+
+    /**
+     * Constructor for an alphabet of the given letters, each of a single char.
+     * @param language The language representative synonym String of the alphabet.
+     * @param letters  The letters, in the order of their indices.
+     * @param weights  The weight of each letter in a frequency-weighted fill, positive.
+     * @throws PuzzleException If there are no letters, a letter is repeated or a weight is not positive.
+     * @throws IllegalArgumentException If there are not as many weights as letters.
+     */
+    public Alphabet(String language, char[] letters, double[] weights) {
+        this(language, toStrings(letters), weights);
+    }
+
+    /**
+     * Constructor for an alphabet of the given letters, each of one or more chars.
+     * @param language The language representative synonym String of the alphabet.
+     * @param letters  The letters, in the order of their indices, composed to NFC.
+     * @param weights  The weight of each letter in a frequency-weighted fill, positive.
+     * @throws PuzzleException If there are no letters, a letter is empty or repeated, a letter of a single char is the
+     *                         char of a letter of more than one, or a weight is not positive.
+     * @throws IllegalArgumentException If there are not as many weights as letters.
+     */
+    public Alphabet(String language, String[] letters, double[] weights) {
+        if (letters.length != weights.length) {
+            throw new IllegalArgumentException("A weight is to be given for each letter");
+        }
+        if (letters.length == 0) {
+            throw new PuzzleException("Invalid alphabet " + language + " (No letters)");
+        }
+        this.language = language;
+        this.weights = weights.clone();
+
+        //Letters of more than one char are given the chars from FIRST_COMPOSITE_CODE on, in their order.
+        this.letters = new char[letters.length];
+        int compositeCount = 0;
+        for (int i = 0; i < letters.length; i++) {
+            if (letters[i].isEmpty()) {
+                throw new PuzzleException("Invalid alphabet " + language + " (Empty letter)");
+            }
+            this.letters[i] = letters[i].length() == 1 ? letters[i].charAt(0) : (char) (FIRST_COMPOSITE_CODE + compositeCount++);
+        }
+        composites = new String[compositeCount];
+        for (int i = 0, k = 0; i < letters.length; i++) {
+            if (letters[i].length() != 1) {
+                composites[k++] = letters[i];
+            }
+        }
+        Integer[] longestFirst = new Integer[compositeCount];
+        for (int k = 0; k < compositeCount; k++) {
+            longestFirst[k] = k;
+        }
+        Arrays.sort(longestFirst, (a, b) -> composites[b].length() - composites[a].length());
+        compositesLongestFirst = new int[compositeCount];
+        for (int k = 0; k < compositeCount; k++) {
+            compositesLongestFirst[k] = longestFirst[k];
+        }
+
+        char maxLetter = 0;
+        for (char letter : this.letters) {
+            maxLetter = (char) Math.max(maxLetter, letter);
+        }
+        indices = new int[maxLetter + 1];
+        Arrays.fill(indices, -1);
+        for (int i = 0; i < letters.length; i++) {
+            if (indices[this.letters[i]] >= 0) {
+                throw new PuzzleException("Invalid alphabet " + language + " (The letter " + letters[i] + " is repeated or is the char of another letter)");
+            }
+            indices[this.letters[i]] = i;
+        }
+        for (int k = 0; k < composites.length; k++) {
+            for (int other = k + 1; other < composites.length; other++) {
+                if (composites[k].equals(composites[other])) {
+                    throw new PuzzleException("Invalid alphabet " + language + " (The letter " + composites[k] + " is repeated)");
+                }
+            }
+        }
+        CRC32 crc = new CRC32();
+        for (String letter : letters) {
+            for (int k = 0; k < letter.length(); k++) {
+                crc.update(letter.charAt(k) >>> 8);
+                crc.update(letter.charAt(k));
+            }
+            if (letter.length() != 1) { //Ends the letter, so that two letters do not read as two others.
+                crc.update(0);
+                crc.update(0);
+            }
+        }
+        checksum = (int) crc.getValue();
+
+        double[] equal = new double[letters.length];
+        Arrays.fill(equal, 1);
+        uniformSampler = new AliasSampler(equal);
+        try {
+            frequencySampler = new AliasSampler(weights);
+        } catch (IllegalArgumentException e) {
+            throw new PuzzleException("Invalid alphabet " + language + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private static String[] toStrings(char[] letters) {
+        String[] strings = new String[letters.length];
+        for (int i = 0; i < letters.length; i++) {
+            strings[i] = Character.toString(letters[i]);
+        }
+        return strings;
+    }
+
+    /**
+     * Reads an alphabet from the lines of its file.
+     * @param language The language representative synonym String of the alphabet.
+     * @param lines    The lines of the alphabet file.
+     * @return The alphabet.
+     * @throws PuzzleException If the lines do not define an alphabet.
+     */
+    public static Alphabet parse(String language, List<String> lines) {
+        String[] letters = new String[lines.size()];
+        double[] weights = new double[lines.size()];
+        int count = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            String letter = Normalizer.normalize(parts[0], Normalizer.Form.NFC);
+            if (parts.length > 2) {
+                throw new PuzzleException("Invalid alphabet " + language + " (Line " + (i + 1) + " is not a single letter, optionally followed by its weight)");
+            }
+            double weight = 1;
+            if (parts.length == 2) {
+                try {
+                    weight = Double.parseDouble(parts[1]);
+                } catch (NumberFormatException e) {
+                    weight = -1;
+                }
+                if (!(weight > 0) || Double.isInfinite(weight)) {
+                    throw new PuzzleException("Invalid alphabet " + language + " (Invalid weight on line " + (i + 1) + ")");
+                }
+            }
+            letters[count] = letter;
+            weights[count++] = weight;
+        }
+        return new Alphabet(language, Arrays.copyOf(letters, count), Arrays.copyOf(weights, count));
+    }
+
+    /**
+     * Replaces the letters of more than one char in the given text by their chars, the longest letter first where
+     * several start at the same place, giving the letters of the text as they are put in cells.
+     * @param text A text composed to NFC and uppercased, e.g. a word without its spaces.
+     * @return The letters of the text, the same instance if the alphabet has no letters of more than one char.
+     */
+    public String encode(String text) {
+        if (composites.length == 0) {
+            return text;
+        }
+        StringBuilder encoded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ) {
+            int found = -1;
+            for (int k : compositesLongestFirst) {
+                if (text.startsWith(composites[k], i)) {
+                    found = k;
+                    break;
+                }
+            }
+            if (found < 0) {
+                encoded.append(text.charAt(i++));
+            } else {
+                encoded.append((char) (FIRST_COMPOSITE_CODE + found));
+                i += composites[found].length();
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * @param letter The char of a cell.
+     * @return The letter as it is written: the letter of more than one char the given char stands for, if it stands
+     *         for one, else the char itself.
+     */
+    public String spell(char letter) {
+        int composite = letter - FIRST_COMPOSITE_CODE;
+        return composite >= 0 && composite < composites.length ? composites[composite] : Character.toString(letter);
+    }
+
+    /**
+     * @return True if the alphabet has letters of more than one char, which the cells hold as chars of their own.
+     */
+    public boolean hasComposites() {
+        return composites.length > 0;
+    }
+
+    /**
+     * @param letter A char.
+     * @return The index of the given letter in the alphabet, or -1 if it is not in the alphabet.
+     */
+    public int indexOf(char letter) {
+        return letter < indices.length ? indices[letter] : -1;
+    }
+
+    /**
+     * @param index Index of a letter, less than {@link #size()}.
+     * @return The letter.
+     */
+    public char letterAt(int index) {
+        return letters[index];
+    }
+
+    /**
+     * @return The amount of letters of the alphabet.
+     */
+    public int size() {
+        return letters.length;
+    }
+
+    /**
+     * @param index Index of a letter, less than {@link #size()}.
+     * @return The weight of the letter in a frequency-weighted fill.
+     */
+    public double weightAt(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Returns a sampler of the indices of the letters.
+     * @param frequencyWeighted True to draw each letter as often as its weight makes it, false to draw all of them
+     *                          equally often.
+     * @return The sampler.
+     */
+    public AliasSampler sampler(boolean frequencyWeighted) {
+        return frequencyWeighted ? frequencySampler : uniformSampler;
+    }
+
+    /**
+     * @return The checksum of the letters of the alphabet in the order of their indices, so that an index stored with
+     *         it is only read back as a letter with the same letters.
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return The language representative synonym String of the alphabet.
+     */
+    public String getLanguage() {
+        return language;
+    }
+}
@@ -0,0 +1,117 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The class finding the {@link Alphabet} of a language by its language representative synonym String, e.g. "EN". The
+ * alphabet of a language is read once, from the file named after it with the .txt extension (see {@link Alphabet} for
+ * its format): first from the directory given by the system property {@value #DIRECTORY_PROPERTY}, if there is one,
+ * then from the alphabets shipped with the program, under alphabets/ on the class path. So adding a language, or
+ * changing the letters of one, only takes a file. The alphabets of EN and TR are also built into the program, the same
+ * as their shipped files, so that they are supported even when the program is run without its files.
+ */
+public class AlphabetRegistry {
+    /**
+     * The system property naming a directory of alphabet files, which override the shipped ones.
+     */
+    public static final String DIRECTORY_PROPERTY = "wordsearch.alphabets";
+
+    /**
+     * The languages a file is looked up for, so that a language cannot name a file out of the alphabet directories.
+     */
+    private static final Pattern LANGUAGE = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    /**
+     * The alphabets read so far, and the languages found to have none.
+     */
+    private static final Map<String, Optional<Alphabet>> ALPHABETS = new ConcurrentHashMap<>();
+
+    private AlphabetRegistry() {
+    }
+
+    /**
+     * Returns the alphabet of the given language, reading it only the first time it is asked for.
+     * @param language The language representative synonym String.
+     * @return The alphabet, or null if the language has none.
+     * @throws PuzzleException If the alphabet file of the language cannot be read or does not define an alphabet.
+     */
+    public static Alphabet get(String language) {
+        Optional<Alphabet> alphabet = ALPHABETS.get(language);
+        if (alphabet == null) {
+            alphabet = Optional.ofNullable(LANGUAGE.matcher(language).matches() ? read(language) : null);
+            Optional<Alphabet> raced = ALPHABETS.putIfAbsent(language, alphabet);
+            alphabet = raced != null ? raced : alphabet;
+        }
+        return alphabet.orElse(null);
+    }
+
+    /**
+     * @param language The language representative synonym String.
+     * @return True if the language has an alphabet.
+     * @throws PuzzleException If the alphabet file of the language cannot be read or does not define an alphabet.
+     */
+    public static boolean isSupported(String language) {
+        return get(language) != null;
+    }
+
+    /**
+     * Reads the alphabet file of the given language.
+     * @return The alphabet, or null if there is no file for the language and it is not built in.
+     */
+    private static Alphabet read(String language) {
+        String fileName = language + ".txt";
+        try {
+            String directory = System.getProperty(DIRECTORY_PROPERTY);
+            if (directory != null) {
+                Path path = Paths.get(directory, fileName);
+                if (Files.isRegularFile(path)) {
+                    return Alphabet.parse(language, Files.readAllLines(path, StandardCharsets.UTF_8));
+                }
+            }
+            try (InputStream stream = AlphabetRegistry.class.getClassLoader().getResourceAsStream("alphabets/" + fileName)) {
+                if (stream == null) {
+                    return builtIn(language);
+                }
+                List<String> lines = new ArrayList<>();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+                for (String line; (line = reader.readLine()) != null; ) {
+                    lines.add(line);
+                }
+                return Alphabet.parse(language, lines);
+            }
+        } catch (IOException | InvalidPathException e) {
+            throw new PuzzleException("Invalid alphabet " + language + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Returns the built-in alphabet of the given language, with the letters and weights of its shipped file.
+     * @return The alphabet, or null if the language has none built in.
+     */
+    private static Alphabet builtIn(String language) {
+        switch (language) {
+            case "EN":
+                return new Alphabet(language, "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray(), new double[]{
+                        8.17, 1.49, 2.78, 4.25, 12.70, 2.23, 2.02, 6.09, 6.97, 0.15, 0.77, 4.03, 2.41,
+                        6.75, 7.51, 1.93, 0.10, 5.99, 6.33, 9.06, 2.76, 0.98, 2.36, 0.15, 1.97, 0.07});
+            case "TR":
+                return new Alphabet(language, "ABCÇDEFGĞHIİJKLMNOÖPRSŞTUÜVYZ".toCharArray(), new double[]{
+                        11.92, 2.84, 0.96, 1.16, 4.71, 8.91, 0.46, 1.25, 1.13, 1.21, 5.11, 8.60, 0.03, 4.68, 5.92,
+                        3.75, 7.49, 2.48, 0.78, 0.89, 6.72, 3.01, 1.78, 3.01, 3.24, 1.85, 0.96, 3.34, 1.50});
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * The class that places a set of words on an {@link OccupancyGrid} by backtracking. At each step it picks the word with
+ * the fewest fitting placements left, tries its placements in random order and, after each one, checks that every remaining
+ * word still has at least one fitting placement before going deeper. The search either places all the words, proves
+ * that there is no way to place them, or runs out of its time budget.
+ */
+public class BacktrackingSolver {
+    private final OccupancyGrid grid;
+    private final String[] words;
+    private final int[] placements;
+    private final boolean[] placed;
+    private final CandidateFinder finder;
+    private final long deadline;
+    private final Randomizer randomizer;
+    private final GeneratorContext context;
+    private boolean timedOut;
+
+    /**
+     * Statistics of each word: the fitting placements it had when it was last picked, the placements tried, the ones
+     * undone because the search could not go on from them, and the time spent finding placements for it.
+     */
+    private final int[] candidateCounts, attempts, rejections;
+    private final long[] nanos;
+
+    /**
+     * Constructor for a solver placing the given words on the given grid.
+     *
+     * @param grid             The grid to place the words on, possibly containing words already.
+     * @param words            The words to be placed, uppercased and without spaces.
+     * @param finder           The finder listing the fitting placements of the words.
+     * @param timeBudgetMillis The time, in milliseconds, the search may take before it is given up.
+     * @param randomizer       The random source of the order the placements of a word are tried in.
+     */
+    public BacktrackingSolver(OccupancyGrid grid, String[] words, CandidateFinder finder, long timeBudgetMillis, Randomizer randomizer) {
+        this(grid, words, finder, timeBudgetMillis, randomizer, new GeneratorContext());
+    }
+
+    /**
+     * Constructor for a solver placing the given words on the given grid, listing the placements into the reusable
+     * placement lists of the given context instead of new ones.
+     *
+     * @param grid             The grid to place the words on, possibly containing words already.
+     * @param words            The words to be placed, uppercased and without spaces.
+     * @param finder           The finder listing the fitting placements of the words.
+     * @param timeBudgetMillis The time, in milliseconds, the search may take before it is given up.
+     * @param randomizer       The random source of the order the placements of a word are tried in.
+     * @param context          The context whose placement lists are used by the search.
+     */
+    public BacktrackingSolver(OccupancyGrid grid, String[] words, CandidateFinder finder, long timeBudgetMillis, Randomizer randomizer, GeneratorContext context) {
+        this.grid = grid;
+        this.context = context;
+        this.words = words;
+        this.placements = new int[words.length];
+        this.placed = new boolean[words.length];
+        this.finder = finder;
+        this.deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        this.randomizer = randomizer;
+        this.candidateCounts = new int[words.length];
+        this.attempts = new int[words.length];
+        this.rejections = new int[words.length];
+        this.nanos = new long[words.length];
+    }
+
+    /**
+     * Searches a placement for all the words. When it succeeds, the words are left placed on the grid and their
+     * locations can be read with {@link #getRow(int)}, {@link #getColumn(int)} and {@link #getRotation(int)}.
+     *
+     * @return True if all the words have been placed, false if no placement exists or the time budget has run out,
+     *         which can be told apart with {@link #isTimedOut()}.
+     */
+    public boolean solve() {
+        return search(0);
+    }
+
+    private boolean search(int placedCount) {
+        if (placedCount == words.length) {
+            return true;
+        }
+        if (System.nanoTime() > deadline) {
+            timedOut = true;
+            return false;
+        }
+
+        /* Forward checking: find the fitting placements of every remaining word, failing right away if one of them has
+         none left, and go on with the most constrained word (longer words first among equally constrained ones). */
+        int chosen = -1;
+        PlacementList chosenCandidates = null;
+        PlacementList candidates = context.placementList(placedCount, 0);
+        for (int w = 0; w < words.length; w++) {
+            if (placed[w]) {
+                continue;
+            }
+            candidates.clear();
+            long start = System.nanoTime();
+            finder.find(grid, words[w], candidates);
+            nanos[w] += System.nanoTime() - start;
+            if (candidates.isEmpty()) {
+                return false;
+            }
+            if (chosenCandidates == null || candidates.size() < chosenCandidates.size()
+                    || (candidates.size() == chosenCandidates.size() && words[w].length() > words[chosen].length())) {
+                //The lists of this depth are swapped instead of copied, keeping the chosen ones during deeper searches.
+                PlacementList previous = chosenCandidates;
+                chosen = w;
+                chosenCandidates = candidates;
+                candidates = previous != null ? previous : context.placementList(placedCount, 1);
+            }
+        }
+
+        String word = words[chosen];
+        chosenCandidates.shuffle(randomizer, grid.getDifficulty());
+        candidateCounts[chosen] = chosenCandidates.size();
+        placed[chosen] = true;
+        for (int i = 0; i < chosenCandidates.size(); i++) {
+            placements[chosen] = chosenCandidates.get(i);
+            grid.place(word, getRow(chosen), getColumn(chosen), getRotation(chosen));
+            attempts[chosen]++;
+            if (search(placedCount + 1)) {
+                return true;
+            }
+            grid.remove(word, getRow(chosen), getColumn(chosen), getRotation(chosen));
+            rejections[chosen]++;
+            if (timedOut) {
+                break;
+            }
+        }
+        placed[chosen] = false;
+        return false;
+    }
+
+    /**
+     * @return True if the last search has been given up because the time budget ran out.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return Row of the first letter of the word.
+     */
+    public int getRow(int index) {
+        return grid.rowOf(placements[index]);
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return Column of the first letter of the word.
+     */
+    public int getColumn(int index) {
+        return grid.columnOf(placements[index]);
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The rotation value of the word, an integer between [0,7].
+     */
+    public int getRotation(int index) {
+        return OccupancyGrid.rotationOf(placements[index]);
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The amount of fitting placements the word had when it was last picked.
+     */
+    public int getCandidateCount(int index) {
+        return candidateCounts[index];
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The amount of placements tried for the word.
+     */
+    public int getAttempts(int index) {
+        return attempts[index];
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The amount of placements of the word undone because the search could not go on from them.
+     */
+    public int getRejections(int index) {
+        return rejections[index];
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The time spent finding placements for the word, in nanoseconds.
+     */
+    public long getNanos(int index) {
+        return nanos[index];
+    }
+}
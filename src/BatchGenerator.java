@@ -0,0 +1,294 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The class generating the puzzles of many input files at once, spreading them over a bounded pool of worker threads.
+ * Each input file is a job of its own: a job that fails is reported with its reason and does not stop the others, and
+ * the jobs are always reported in the order of their input files, whichever finishes first. If the settings have a
+ * seed, each job is seeded with its own seed derived from it and the job's position, so the batch is reproducible.
+ */
+public class BatchGenerator {
+    private final List<Path> inputs;
+    private final Path outputDirectory;
+    private final GenerationSettings settings;
+    private final int threadCount;
+    private final String statsPath;
+    private String archivePath;
+    private List<PuzzleRenderer> renderers = Collections.singletonList(new TextRenderer());
+
+    /**
+     * Constructor for a batch of puzzles.
+     * @param source            Path to either a directory, whose regular files are taken as the input files in the
+     *                          order of their names, or a manifest file listing the paths of the input files line by
+     *                          line, relative to the manifest's own directory.
+     * @param outputDirectory   Path to the directory the puzzles are written to, each in a file with the same name as
+     *                          its input file. It is created if it does not exist, and may not be the directory of
+     *                          the input files.
+     * @param settings          Settings of how the puzzles are generated.
+     * @param threadCount       The amount of worker threads generating the puzzles.
+     * @param statsPath         Path to write the generation statistics of all the jobs to, or null for none.
+     * @throws PuzzleException If the source cannot be read.
+     */
+    public BatchGenerator(String source, String outputDirectory, GenerationSettings settings, int threadCount, String statsPath) {
+        this.inputs = listInputs(Paths.get(source));
+        this.outputDirectory = Paths.get(outputDirectory);
+        this.settings = settings;
+        this.threadCount = threadCount;
+        this.statsPath = statsPath;
+    }
+
+    /**
+     * Makes the batch write its puzzles to a single archive instead of the output directory, each one as soon as it is
+     * generated (see {@link PuzzleArchiveWriter}), so the id of a puzzle is its position in the order the puzzles were
+     * generated in, which {@link Result#getArchiveId()} tells.
+     * @param archivePath Path to the archive, created from zero; or null to write to the output directory.
+     * @return This batch.
+     */
+    public BatchGenerator setArchivePath(String archivePath) {
+        this.archivePath = archivePath;
+        return this;
+    }
+
+    /**
+     * Makes the batch write each puzzle in the given formats, the first one to the file named after its input file and
+     * each other one next to it (see {@link FileOutput#writeToFiles(String, WordSearchGrid, List)}). An archive keeps
+     * the puzzles themselves instead, whatever the formats.
+     * @param renderers The renderers of the formats, at least one; text only by default.
+     * @return This batch.
+     */
+    public BatchGenerator setRenderers(List<PuzzleRenderer> renderers) {
+        this.renderers = renderers;
+        return this;
+    }
+
+    /**
+     * Lists the input files of the given directory or manifest file.
+     */
+    static List<Path> listInputs(Path source) {
+        try {
+            if (Files.isDirectory(source)) {
+                try (Stream<Path> files = Files.list(source)) {
+                    return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+            }
+            Path directory = source.toAbsolutePath().getParent();
+            List<Path> inputs = new ArrayList<>();
+            for (String line : FileInput.readFile(source.toString(), true, true)) {
+                inputs.add(directory.resolve(line));
+            }
+            return inputs;
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid batch source (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Generates all the puzzles of the batch, writing each to its output file.
+     * @return The results of the jobs, in the order of their input files.
+     * @throws PuzzleException If the output directory cannot be created or the archive cannot be written.
+     */
+    public List<Result> run() {
+        if (archivePath == null) {
+            for (Path input : inputs) {
+                if (outputPath(input).equals(input.toAbsolutePath().normalize())) {
+                    throw new PuzzleException("Invalid output directory (The puzzle of " + input + " would overwrite it)");
+                }
+            }
+            try {
+                Files.createDirectories(outputDirectory);
+            } catch (IOException e) {
+                throw new PuzzleException("Invalid output directory (" + e.getMessage() + ")");
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        GeneratorContext.PerThread contexts = new GeneratorContext.PerThread();
+        //Puzzles are archived as soon as they are generated, so that none of them is kept until the batch ends.
+        try (PuzzleArchiveWriter archive = archivePath == null ? null : new PuzzleArchiveWriter(archivePath, false)) {
+            List<Callable<Result>> jobs = new ArrayList<>();
+            for (int i = 0; i < inputs.size(); i++) {
+                Path input = inputs.get(i);
+                GenerationSettings jobSettings = settings.copy();
+                if (settings.getSeed() != null) {
+                    jobSettings.setSeed(jobSeed(settings.getSeed(), i));
+                }
+                GenerationStats stats = null;
+                if (statsPath != null) {
+                    jobSettings.setListener(stats = new GenerationStats(input.getFileName().toString()));
+                }
+                GenerationStats jobStats = stats;
+                jobs.add(() -> generate(input, jobSettings, jobStats, contexts.get(), archive));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : pool.invokeAll(jobs)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PuzzleException("Batch generation interrupted");
+        } catch (ExecutionException e) {
+            //Jobs catch their own failures, so only an unexpected failure can get here.
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+            contexts.close();
+        }
+    }
+
+    /**
+     * Derives the seed of a job from the seed of the batch, spreading the seeds of consecutive jobs apart.
+     */
+    private static long jobSeed(long batchSeed, int index) {
+        return batchSeed + 0x9E3779B97F4A7C15L * (index + 1);
+    }
+
+    /**
+     * @return The path of the output file of the given input file.
+     */
+    private Path outputPath(Path input) {
+        return outputDirectory.resolve(input.getFileName()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Generates the puzzle of a single input file, catching its failure as the result of the job, whatever it is, so
+     * that it does not stop the other jobs.
+     */
+    private Result generate(Path input, GenerationSettings settings, GenerationStats stats, GeneratorContext context, PuzzleArchiveWriter archive) {
+        long start = System.nanoTime();
+        try {
+            InputHelper helper = StreamingFileInput.readInput(input.toString());
+            WordSearchGrid puzzle = new WordSearchGrid(helper.getWords(), helper.getHeight(), helper.getWidth(), helper.getLanguage(), helper.isShowHint(), settings, context);
+            int archiveId = -1;
+            if (archive == null) {
+                FileOutput.writeToFiles(outputPath(input).toString(), puzzle, renderers);
+            } else {
+                synchronized (archive) {
+                    archiveId = archive.write(puzzle);
+                }
+            }
+            return new Result(input, null, System.nanoTime() - start, stats, archiveId);
+        } catch (PuzzleException e) {
+            return failed(input, e.getMessage(), System.nanoTime() - start, stats);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            return failed(input, e.toString(), System.nanoTime() - start, stats);
+        }
+    }
+
+    /**
+     * @return The result of a job that failed for the given reason, its time also recorded in its statistics.
+     */
+    private static Result failed(Path input, String failure, long nanos, GenerationStats stats) {
+        if (stats != null) {
+            stats.generationFailed(nanos);
+        }
+        return new Result(input, failure, nanos, stats, -1);
+    }
+
+    /**
+     * Generates the batch and prints a line for each job, followed by a summary with the throughput of the batch. If
+     * a statistics path has been given, the statistics of all the jobs are then written to it, in the order of jobs.
+     */
+    public void runAndReport() {
+        long start = System.nanoTime();
+        List<Result> results = run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int succeeded = 0;
+        for (Result result : results) {
+            if (result.isSucceeded()) {
+                succeeded++;
+                System.out.printf("OK      %s (%.1f ms)%s%n", result.getInput(), result.getNanos() / 1e6,
+                        result.getArchiveId() < 0 ? "" : ", archived as #" + result.getArchiveId());
+            } else {
+                System.out.printf("FAILED  %s: %s%n", result.getInput(), result.getFailure());
+            }
+        }
+        System.out.printf("%d of %d puzzles generated in %.2f s on %d threads (%.1f puzzles/s)%n",
+                succeeded, results.size(), seconds, threadCount, succeeded / seconds);
+        WordListCache cache = WordListCache.shared();
+        System.out.printf("Word list cache: %d hits, %d misses, %d evictions%n", cache.getHits(), cache.getMisses(), cache.getEvictions());
+
+        if (statsPath != null) {
+            List<GenerationStats> stats = new ArrayList<>();
+            for (Result result : results) {
+                stats.add(result.getStats());
+            }
+            GenerationStats.writeToFile(statsPath, stats);
+        }
+    }
+
+    /**
+     * The class whose instances define the outcome of a single job of a batch.
+     */
+    public static class Result {
+        private final Path input;
+        private final String failure;
+        private final long nanos;
+        private final GenerationStats stats;
+        private final int archiveId;
+
+        private Result(Path input, String failure, long nanos, GenerationStats stats, int archiveId) {
+            this.input = input;
+            this.failure = failure;
+            this.nanos = nanos;
+            this.stats = stats;
+            this.archiveId = archiveId;
+        }
+
+        /**
+         * @return Path to the input file of the job.
+         */
+        public Path getInput() {
+            return input;
+        }
+
+        /**
+         * @return True if the puzzle of the job has been generated and written.
+         */
+        public boolean isSucceeded() {
+            return failure == null;
+        }
+
+        /**
+         * @return The reason the job failed, or null if it has succeeded.
+         */
+        public String getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return The time the job took, in nanoseconds.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return The id of the puzzle of the job in the archive of the batch, or -1 if the job has failed or the batch
+         *         is not archived.
+         */
+        public int getArchiveId() {
+            return archiveId;
+        }
+
+        /**
+         * @return The generation statistics of the job, or null if they have not been collected.
+         */
+        public GenerationStats getStats() {
+            return stats;
+        }
+    }
+}
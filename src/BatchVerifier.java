@@ -0,0 +1,161 @@
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The class verifying many generated puzzles at once with {@link PuzzleVerifier}, spreading them over a bounded pool of
+ * worker threads. The puzzles are either a single output file, the output files of a directory, in the order of their
+ * names, or the puzzles of a {@link PuzzleArchiveReader archive}. They are always reported in their order, whichever is
+ * verified first. Only the files of a directory with the extension of a text puzzle are verified, so that the files
+ * of the other formats written next to them (see {@link FileOutput#writeToFiles(String, WordSearchGrid, List)}) and
+ * any other files are skipped.
+ */
+public class BatchVerifier {
+    private final String source;
+    private final int threadCount;
+    private List<String> extensions = Collections.singletonList(new TextRenderer().getExtension());
+
+    /**
+     * Constructor for a batch of puzzles to verify.
+     * @param source      Path to a puzzle archive, an output file or a directory of output files.
+     * @param threadCount The amount of worker threads verifying the puzzles.
+     */
+    public BatchVerifier(String source, int threadCount) {
+        this.source = source;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Sets the extensions of the text puzzles of a directory, the files verified; the other files of the directory are
+     * skipped. A single output file is verified whatever its extension.
+     * @param extensions The extensions, without the dot, in any case; txt only by default.
+     * @return This batch.
+     */
+    public BatchVerifier setExtensions(List<String> extensions) {
+        this.extensions = extensions;
+        return this;
+    }
+
+    /**
+     * Verifies all the puzzles of the batch.
+     * @return The reports of the puzzles, in their order.
+     * @throws PuzzleException If the source cannot be read.
+     */
+    public List<PuzzleVerifier.Report> run() {
+        PuzzleArchiveReader archive = isArchive(Paths.get(source)) ? new PuzzleArchiveReader(source) : null;
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            List<Callable<PuzzleVerifier.Report>> jobs = new ArrayList<>();
+            if (archive != null) {
+                for (int i = 0; i < archive.size(); i++) {
+                    int id = i;
+                    jobs.add(() -> verify("#" + id, () -> PuzzleVerifier.verify("#" + id, archive.read(id))));
+                }
+            } else {
+                Path path = Paths.get(source);
+                List<Path> outputs = Files.isDirectory(path) ? BatchGenerator.listInputs(path) : Collections.singletonList(path);
+                for (Path output : outputs) {
+                    if (Files.isDirectory(path) && !hasExtension(output)) {
+                        continue;
+                    }
+                    jobs.add(() -> verify(output.toString(), () -> PuzzleVerifier.verify(output.toString())));
+                }
+            }
+
+            List<PuzzleVerifier.Report> reports = new ArrayList<>();
+            for (Future<PuzzleVerifier.Report> future : pool.invokeAll(jobs)) {
+                reports.add(future.get());
+            }
+            return reports;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PuzzleException("Batch verification interrupted");
+        } catch (ExecutionException e) {
+            //Jobs catch their own failures, so only an unexpected failure can get here.
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+            if (archive != null) {
+                archive.close();
+            }
+        }
+    }
+
+    /**
+     * Runs a single verification, reporting a puzzle that cannot be read as one that cannot be verified.
+     */
+    private static PuzzleVerifier.Report verify(String name, Callable<PuzzleVerifier.Report> verification) throws Exception {
+        try {
+            return verification.call();
+        } catch (PuzzleException e) {
+            return PuzzleVerifier.unreadable(name, e.getMessage());
+        }
+    }
+
+    /**
+     * @return True if the given file of a directory has one of the extensions of the text puzzles.
+     */
+    private boolean hasExtension(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : extensions) {
+            if (name.endsWith("." + extension.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the given file starts like a puzzle archive.
+     */
+    private static boolean isArchive(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (InputStream stream = Files.newInputStream(path)) {
+            return new DataInputStream(stream).readInt() == PuzzleArchive.MAGIC;
+        } catch (IOException e) { //Too short or unreadable; reading it as an output file tells why.
+            return false;
+        }
+    }
+
+    /**
+     * Verifies the batch and prints a line for each puzzle, followed by a summary with the throughput of the batch.
+     * @return True if every puzzle is valid.
+     */
+    public boolean runAndReport() {
+        long start = System.nanoTime();
+        List<PuzzleVerifier.Report> reports = run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int valid = 0, ambiguous = 0;
+        for (PuzzleVerifier.Report report : reports) {
+            if (report.getFailure() != null) {
+                System.out.printf("FAILED    %s: %s%n", report.getName(), report.getFailure());
+            } else if (!report.isValid()) {
+                System.out.printf("FAILED    %s: missing %s%n", report.getName(), String.join(", ", report.getMissing()));
+            } else if (!report.getAmbiguous().isEmpty()) {
+                valid++;
+                ambiguous++;
+                System.out.printf("AMBIGUOUS %s: found more than once %s%n", report.getName(), String.join(", ", report.getAmbiguous()));
+            } else {
+                valid++;
+                System.out.printf("OK        %s%n", report.getName());
+            }
+        }
+        System.out.printf("%d of %d puzzles valid (%d ambiguous), verified in %.2f s on %d threads (%.1f puzzles/s)%n",
+                valid, reports.size(), ambiguous, seconds, threadCount, reports.size() / seconds);
+        return valid == reports.size();
+    }
+}
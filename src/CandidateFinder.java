@@ -0,0 +1,159 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The class finding the fitting placements of words during a generation, either on the calling thread or, for large
+ * puzzles, by evaluating the eight rotations at the same time on a pool of worker threads. The workers only read the
+ * grid, which does not change while they run, and their results are always joined in the order of rotations, so the
+ * placements found, and therefore a seeded puzzle, are the same whatever the amount of threads is.
+ */
+public class CandidateFinder implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    /**
+     * The bitsets of the fitting origins of each rotation and their amounts, as found by the last evaluation.
+     */
+    private final long[][] origins = new long[8][];
+    private final int[] counts = new int[8];
+    private int foundCount;
+
+    /**
+     * Constructor for a CandidateFinder.
+     * @param parallelism The amount of worker threads; with 1, the placements are found on the calling thread.
+     */
+    public CandidateFinder(int parallelism) {
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Lists every placement of the given word that fits the given grid, in the same order as
+     * {@link OccupancyGrid#candidates(String, PlacementList)}.
+     * @param grid       The grid to find placements on, not to be changed until this method returns.
+     * @param word       The word, uppercased and without spaces.
+     * @param placements The list the fitting placements are appended to.
+     * @return The amount of fitting placements appended.
+     */
+    public int find(OccupancyGrid grid, String word, PlacementList placements) {
+        int total = evaluate(grid, word);
+        for (int rotation = 0; rotation < 8; rotation++) {
+            long[] rotationOrigins = origins[rotation];
+            for (int i = 0; counts[rotation] > 0 && i < grid.getMaskLength(); i++) {
+                for (long bits = rotationOrigins[i]; bits != 0; bits &= bits - 1) {
+                    placements.add(((i << 6) + Long.numberOfTrailingZeros(bits)) * 8 + rotation);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Picks one of the placements of the given word that fit the given grid, uniformly, without listing them: the
+     * placement picked is the one at a random index of {@link #find(OccupancyGrid, String, PlacementList)}. If the
+     * grid has a difficulty whose rotations weigh differently, each placement is picked as often as its rotation weighs.
+     * @param grid       The grid to find placements on, not to be changed until this method returns.
+     * @param word       The word, uppercased and without spaces.
+     * @param randomizer The random source of the pick.
+     * @return The encoded placement picked, or -1 if no placement of the word fits the grid.
+     */
+    public int pick(OccupancyGrid grid, String word, Randomizer randomizer) {
+        int total = evaluate(grid, word);
+        if (total == 0) {
+            return -1;
+        }
+
+        DifficultyProfile difficulty = grid.getDifficulty();
+        if (difficulty != null && !difficulty.isUniform()) {
+            return pickWeighted(difficulty, randomizer);
+        }
+        int n = randomizer.randomNumber(total);
+        int rotation = 0;
+        while (n >= counts[rotation]) {
+            n -= counts[rotation++];
+        }
+        return OccupancyGrid.nthOrigin(origins[rotation], n) * 8 + rotation;
+    }
+
+    /**
+     * Picks one of the placements found by the last evaluation, each one as often as the weight of its rotation in the
+     * given difficulty makes it: a single draw over the placements counted once per unit of weight.
+     */
+    private int pickWeighted(DifficultyProfile difficulty, Randomizer randomizer) {
+        long weighted = 0;
+        for (int rotation = 0; rotation < 8; rotation++) {
+            weighted += (long) counts[rotation] * difficulty.getDirectionWeight(rotation);
+        }
+        if (weighted > Integer.MAX_VALUE) {
+            throw new PuzzleException("The grid is too large for the direction weights of the difficulty");
+        }
+        int n = randomizer.randomNumber((int) weighted);
+        int rotation = 0;
+        while (n >= counts[rotation] * difficulty.getDirectionWeight(rotation)) {
+            n -= counts[rotation] * difficulty.getDirectionWeight(rotation);
+            rotation++;
+        }
+        return OccupancyGrid.nthOrigin(origins[rotation], n / difficulty.getDirectionWeight(rotation)) * 8 + rotation;
+    }
+
+    /**
+     * Finds the fitting origins of the given word for every rotation.
+     * @return The amount of fitting placements over all rotations.
+     */
+    private int evaluate(OccupancyGrid grid, String word) {
+        for (int rotation = 0; rotation < 8; rotation++) {
+            if (origins[rotation] == null || origins[rotation].length < grid.getMaskLength()) {
+                origins[rotation] = new long[grid.getMaskLength()];
+            }
+        }
+
+        if (pool == null) {
+            for (int rotation = 0; rotation < 8; rotation++) {
+                counts[rotation] = grid.fittingOrigins(word, rotation, origins[rotation]);
+            }
+        } else {
+            List<Callable<Integer>> tasks = new ArrayList<>(8);
+            for (int rotation = 0; rotation < 8; rotation++) {
+                int taskRotation = rotation;
+                tasks.add(() -> grid.fittingOrigins(word, taskRotation, origins[taskRotation]));
+            }
+            try {
+                List<Future<Integer>> futures = pool.invokeAll(tasks);
+                for (int rotation = 0; rotation < 8; rotation++) {
+                    counts[rotation] = futures.get(rotation).get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PuzzleException("Placement search interrupted");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return foundCount = total;
+    }
+
+    /**
+     * @return The amount of fitting placements found by the last call of {@link #find(OccupancyGrid, String, PlacementList)}
+     *         or {@link #pick(OccupancyGrid, String, Randomizer)}.
+     */
+    public int getFoundCount() {
+        return foundCount;
+    }
+
+    /**
+     * Shuts the worker threads down, if there are any.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The class whose instances define the command line arguments of the program.
+ */
+public class CommandLineOptions {
+    private String inputPath, outputPath;
+    private boolean batch, server, verify;
+    private int port;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private String statsPath, dictionaryPath, archivePath, blocklistPath;
+    private int sampleCount;
+    private List<PuzzleRenderer> renderers = Collections.singletonList(new TextRenderer());
+    private List<String> verifiedExtensions = Collections.singletonList(new TextRenderer().getExtension());
+    private final GenerationSettings settings = new GenerationSettings();
+
+    /**
+     * Constructor for a CommandLineOptions, deriving the paths and the generation settings from the given arguments.
+     * The first two arguments are the paths to the input and the output files. If they are preceded by -batch, they are
+     * instead the paths to an input directory or manifest file and to an output directory (see {@link BatchGenerator}).
+     * With -server port as the first two arguments, there are no paths, and the program runs as a server on the given
+     * port instead (see {@link PuzzleServer}). With -verify path as the first two arguments, the puzzles of the given
+     * output file, directory of output files or archive are verified instead of generating any (see {@link BatchVerifier}).
+     * The optional arguments following them are:
+     * -mode random|backtracking|dense  The way the words are placed in the puzzle.
+     * -density share               The share of the cells to be covered by words in dense mode, e.g. 0.7, reached by
+     *                              shrinking the grid of the puzzle.
+     * -timeout milliseconds        The time budget of the placement search.
+     * -threads count               The amount of worker threads of a batch, a server or a verification, the amount of
+     *                              processors by default.
+     * -seed number                 The seed of the random values, making the same seed give the same puzzle.
+     * -parallelism count           The amount of threads evaluating placements within a single puzzle, 1 by default.
+     * -stats path                  Path to write the generation statistics to, as JSON if it ends with .json, else CSV.
+     * -archive path                Path to a binary puzzle archive to add the puzzle to (see {@link PuzzleArchiveWriter}); a
+     *                              batch writes its puzzles to a new archive there instead of its output directory.
+     * -dictionary path             Path to a file of words, one per line, to add random words of to a single puzzle.
+     * -sample count                The amount of words picked from the dictionary.
+     * -fill unique|random          Whether the random letters are kept from spelling a word a second time or a word of
+     *                              the blocklist, unique by default, or only drawn at random.
+     * -blocklist path              Path to a file of words, one per line, the random letters are not to spell.
+     * -letters uniform|frequency   Whether the random letters are all as likely, by default, or as frequent as the
+     *                              weights of their alphabet make them (see {@link AlphabetRegistry}).
+     * -autosize yes|no             Whether the puzzle is to be the smallest grid its words are likely to fit, with
+     *                              the proportions of the size given (see {@link FeasibilityAnalyzer}), or, by
+     *                              default, the size given.
+     * -difficulty easy|medium|hard The directions and the limits the placements of the words meet (see
+     *                              {@link DifficultyProfile}); by default, all the directions without limits.
+     * -format formats              The formats the puzzles are written in, separated by commas, among text (by
+     *                              default), html, svg and highlight (the solution as an overlay of the svg). The first
+     *                              one is written to the output file, each other one next to it, with the extension of
+     *                              its format (see {@link FileOutput#writeToFiles(String, WordSearchGrid, List)}).
+     * -extensions extensions       The extensions of the text puzzles verified in a directory, separated by commas,
+     *                              txt by default; the other files of the directory are skipped.
+     * @param args Command line arguments.
+     */
+    public CommandLineOptions(String[] args) {
+
+        int first = 0;
+        if (args.length > 0 && args[0].equals("-batch")) {
+            batch = true;
+            first = 1;
+        } else if (args.length > 1 && args[0].equals("-server")) {
+            server = true;
+            port = (int) parsePort(args[1]);
+        } else if (args.length > 1 && args[0].equals("-verify")) {
+            verify = true;
+            inputPath = args[1];
+        }
+
+        int optionsStart = server || verify ? 2 : first + 2;
+        if (args.length < optionsStart || (args.length - optionsStart) % 2 != 0) {
+            Error.errorMessage("Erroneous number of command line arguments!");
+        }
+
+        if (!server && !verify) {
+            inputPath = args[first];
+            outputPath = args[first + 1];
+        }
+
+        for (int i = optionsStart; i < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "-mode":
+                    try {
+                        settings.setPlacementMode(PlacementMode.valueOf(value.toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        Error.errorMessage("Invalid placement mode (Supported are: random, backtracking and dense)");
+                    }
+                    break;
+                case "-density":
+                    double density = -1;
+                    try {
+                        density = Double.parseDouble(value);
+                    } catch (NumberFormatException ignored) {
+                    }
+                    if (!(density > 0 && density <= 1)) {
+                        Error.errorMessage("Invalid target density (" + value + ")");
+                    }
+                    settings.setTargetDensity(density);
+                    break;
+                case "-timeout":
+                    settings.setTimeBudgetMillis(parsePositive(value, "Invalid time budget"));
+                    break;
+                case "-seed":
+                    try {
+                        settings.setSeed(Long.parseLong(value));
+                    } catch (NumberFormatException e) {
+                        Error.errorMessage("Invalid seed (" + value + ")");
+                    }
+                    break;
+                case "-parallelism":
+                    settings.setParallelism((int) Math.min(parsePositive(value, "Invalid parallelism"), Short.MAX_VALUE));
+                    break;
+                case "-stats":
+                    statsPath = value;
+                    break;
+                case "-archive":
+                    archivePath = value;
+                    break;
+                case "-dictionary":
+                    dictionaryPath = value;
+                    break;
+                case "-sample":
+                    sampleCount = (int) Math.min(parsePositive(value, "Invalid sample size"), Integer.MAX_VALUE - 8);
+                    break;
+                case "-fill":
+                    if (value.equalsIgnoreCase("unique") || value.equalsIgnoreCase("random")) {
+                        settings.setUniqueFill(value.equalsIgnoreCase("unique"));
+                    } else {
+                        Error.errorMessage("Invalid fill (Supported are: unique and random)");
+                    }
+                    break;
+                case "-letters":
+                    if (value.equalsIgnoreCase("uniform") || value.equalsIgnoreCase("frequency")) {
+                        settings.setFrequencyFill(value.equalsIgnoreCase("frequency"));
+                    } else {
+                        Error.errorMessage("Invalid letters (Supported are: uniform and frequency)");
+                    }
+                    break;
+                case "-format":
+                    renderers = new ArrayList<>();
+                    for (String format : value.split(",", -1)) {
+                        PuzzleRenderer renderer = PuzzleRenderer.forName(format.trim());
+                        if (renderer == null) {
+                            Error.errorMessage("Invalid format " + format + " (Supported are: text, html, svg and highlight)");
+                        }
+                        renderers.add(renderer);
+                    }
+                    break;
+                case "-extensions":
+                    verifiedExtensions = new ArrayList<>();
+                    for (String extension : value.split(",", -1)) {
+                        extension = extension.trim();
+                        if (extension.startsWith(".")) {
+                            extension = extension.substring(1);
+                        }
+                        if (extension.isEmpty()) {
+                            Error.errorMessage("Invalid extensions (" + value + ")");
+                        }
+                        verifiedExtensions.add(extension);
+                    }
+                    break;
+                case "-autosize":
+                    if (value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("no")) {
+                        settings.setAutoSize(value.equalsIgnoreCase("yes"));
+                    } else {
+                        Error.errorMessage("Invalid autosize (Supported are: yes and no)");
+                    }
+                    break;
+                case "-difficulty":
+                    settings.setDifficulty(DifficultyProfile.forName(value));
+                    if (settings.getDifficulty() == null) {
+                        Error.errorMessage("Invalid difficulty (Supported are: easy, medium and hard)");
+                    }
+                    break;
+                case "-blocklist":
+                    blocklistPath = value;
+                    break;
+                case "-threads":
+                    threadCount = (int) Math.min(parsePositive(value, "Invalid thread count"), Short.MAX_VALUE);
+                    break;
+                default:
+                    Error.errorMessage("Unknown command line argument: " + args[i]);
+            }
+        }
+
+        if ((dictionaryPath == null) != (sampleCount == 0)) {
+            Error.errorMessage("A dictionary and a sample size are to be given together");
+        }
+        if (blocklistPath != null && !settings.isUniqueFill()) {
+            Error.errorMessage("A blocklist is only kept out of a unique fill");
+        }
+    }
+
+    /**
+     * Parses the given text as a positive number, exiting with the given error message if it is not one.
+     * @param value         The text to be parsed.
+     * @param errorMessage  Error message to be shown if the text is not a positive number.
+     * @return The parsed number.
+     */
+    private static long parsePositive(String value, String errorMessage) {
+        long number = -1;
+        try {
+            number = Long.parseLong(value);
+        } catch (NumberFormatException ignored) {
+        }
+        if (number <= 0) {
+            Error.errorMessage(errorMessage + " (" + value + ")");
+        }
+        return number;
+    }
+
+    /**
+     * Parses the given text as a port number, exiting with an error message if it is not one.
+     * @param value The text to be parsed.
+     * @return The parsed port number.
+     */
+    private static long parsePort(String value) {
+        long port = -1;
+        try {
+            port = Long.parseLong(value);
+        } catch (NumberFormatException ignored) {
+        }
+        if (port < 0 || port > 65535) {
+            Error.errorMessage("Invalid port (" + value + ")");
+        }
+        return port;
+    }
+
+    /**
+     * @return True if the program is to run as a puzzle server.
+     */
+    public boolean isServer() {
+        return server;
+    }
+
+    /**
+     * @return The port of the puzzle server.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return True if puzzles are to be verified instead of generated.
+     */
+    public boolean isVerify() {
+        return verify;
+    }
+
+    /**
+     * @return True if a batch of puzzles is to be generated instead of a single puzzle.
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * @return The amount of worker threads of a batch or a server.
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return Path to write the generation statistics to, or null if they are not requested.
+     */
+    public String getStatsPath() {
+        return statsPath;
+    }
+
+    /**
+     * @return Path to the puzzle archive, or null if the puzzles are not to be archived.
+     */
+    public String getArchivePath() {
+        return archivePath;
+    }
+
+    /**
+     * @return Path to the dictionary to add random words of to the puzzle, or null if none is given.
+     */
+    public String getDictionaryPath() {
+        return dictionaryPath;
+    }
+
+    /**
+     * @return Path to the file of words the random letters are not to spell, or null if there is none.
+     */
+    public String getBlocklistPath() {
+        return blocklistPath;
+    }
+
+    /**
+     * @return The renderers of the formats the puzzles are written in, the one of the output file first.
+     */
+    public List<PuzzleRenderer> getRenderers() {
+        return renderers;
+    }
+
+    /**
+     * @return The extensions of the text puzzles verified in a directory, without the dot.
+     */
+    public List<String> getVerifiedExtensions() {
+        return verifiedExtensions;
+    }
+
+    /**
+     * @return The amount of words picked from the dictionary.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @return Path to the input file, to the input directory or manifest file of a batch, or to the puzzles to verify.
+     */
+    public String getInputPath() {
+        return inputPath;
+    }
+
+    /**
+     * @return Path to the output file, or to the output directory of a batch.
+     */
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * @return Settings of how the puzzle is generated.
+     */
+    public GenerationSettings getSettings() {
+        return settings;
+    }
+}
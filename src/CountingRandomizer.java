@@ -0,0 +1,28 @@
+/**
+ * The randomizer counting the random numbers drawn from another randomizer, used when the generation is listened to.
+ */
+class CountingRandomizer implements Randomizer {
+    private final Randomizer randomizer;
+    private long draws;
+
+    /**
+     * Constructor for a CountingRandomizer.
+     * @param randomizer The randomizer the random numbers are drawn from.
+     */
+    CountingRandomizer(Randomizer randomizer) {
+        this.randomizer = randomizer;
+    }
+
+    @Override
+    public int randomNumber(int upper) {
+        draws++;
+        return randomizer.randomNumber(upper);
+    }
+
+    /**
+     * @return The amount of random numbers drawn so far.
+     */
+    long getDraws() {
+        return draws;
+    }
+}
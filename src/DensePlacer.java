@@ -0,0 +1,294 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class that places a set of words so that they share as many letters as possible, for dense puzzles of many
+ * words. The words are placed from the longest to the shortest with a beam search: the best few partial puzzles are
+ * kept at each step, each one is extended by the placements of the next word that cover the most letters of the words
+ * placed before, and only the best of all the extended puzzles are kept for the next word. A placement covering a word
+ * entirely, which would hide it inside another one, is never taken.
+ *
+ * Given a target density, the share of the cells covered by words, the search is repeated on smaller grids until the
+ * words reach it, the words do not fit anymore or the time budget runs out; the densest puzzle found is kept.
+ */
+public class DensePlacer {
+    /**
+     * The amount of partial puzzles kept at each step when no other amount is given.
+     */
+    public static final int DEFAULT_BEAM_WIDTH = 8;
+
+    private final String[] words;
+    private final int[] order;
+    private final CandidateFinder finder;
+    private final int beamWidth;
+    private final long deadline;
+    private final Randomizer randomizer;
+    private final GeneratorContext context;
+    private boolean timedOut;
+
+    /**
+     * The cells covered by words on the grid of the last successful search.
+     */
+    private int searchedFilledCells;
+
+    /**
+     * The placements of the densest puzzle found and the size of its grid.
+     */
+    private int[] placements;
+    private int height, width;
+
+    /**
+     * Statistics of each word in the search of the densest puzzle: the fitting placements of its best partial puzzle,
+     * the placements that made it into the beam, and the time spent finding placements for it.
+     */
+    private final int[] candidateCounts, attempts;
+    private final long[] nanos;
+
+    /**
+     * Constructor for a placer of the given words.
+     *
+     * @param words            The words to be placed, uppercased and without spaces.
+     * @param order            The indices of the words in the order they are placed in, longest first.
+     * @param finder           The finder listing the fitting placements of the words.
+     * @param beamWidth        The amount of partial puzzles kept at each step; 1 places each word greedily.
+     * @param timeBudgetMillis The time, in milliseconds, the search may take before it is given up.
+     * @param randomizer       The random source deciding between placements sharing as many letters.
+     * @param context          The context whose grid and placement lists are used by the search.
+     */
+    public DensePlacer(String[] words, int[] order, CandidateFinder finder, int beamWidth, long timeBudgetMillis, Randomizer randomizer, GeneratorContext context) {
+        this.words = words;
+        this.order = order;
+        this.finder = finder;
+        this.beamWidth = beamWidth;
+        this.deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        this.randomizer = randomizer;
+        this.context = context;
+        this.candidateCounts = new int[words.length];
+        this.attempts = new int[words.length];
+        this.nanos = new long[words.length];
+    }
+
+    /**
+     * Places the words on a grid of the given size, then on smaller ones while the covered share of the cells is less
+     * than the given target density. When it succeeds, the words are left placed on the grid of the context, which is
+     * returned, and their locations can be read with {@link #getRow(int)}, {@link #getColumn(int)} and
+     * {@link #getRotation(int)}.
+     *
+     * @param height        Height of the largest grid, in characters.
+     * @param width         Width of the largest grid, in characters.
+     * @param targetDensity The share of the cells to be covered by words, between 0 and 1; with 0, the words are only
+     *                      placed on the largest grid.
+     * @param minimumSide   The least size a side of a grid may be shrunk to, e.g. the letters of the longest word.
+     * @return The grid of the densest puzzle found, or null if the words cannot be placed on the largest grid, which
+     *         can be told apart from running out of the time budget with {@link #isTimedOut()}.
+     */
+    public OccupancyGrid place(int height, int width, double targetDensity, int minimumSide) {
+        int goodHeight = 0, goodWidth = 0, failedHeight = 0, failedWidth = 0;
+        double density = 0;
+        for (int tryHeight = height, tryWidth = width; !timedOut; ) {
+            int[] found = search(tryHeight, tryWidth);
+            if (found != null) {
+                placements = found;
+                this.height = goodHeight = tryHeight;
+                this.width = goodWidth = tryWidth;
+                density = (double) searchedFilledCells / ((double) tryHeight * tryWidth);
+            } else if (placements == null) {
+                return null;
+            } else {
+                failedHeight = tryHeight;
+                failedWidth = tryWidth;
+            }
+            if (density >= targetDensity) {
+                break;
+            }
+
+            //Shrunk as much as the density asks for, or, once a size is known to fail, halfway to that size.
+            if (failedHeight == 0) {
+                double scale = Math.sqrt(density / targetDensity);
+                tryHeight = Math.max(minimumSide, Math.min(goodHeight - 1, (int) Math.ceil(goodHeight * scale)));
+                tryWidth = Math.max(minimumSide, Math.min(goodWidth - 1, (int) Math.ceil(goodWidth * scale)));
+            } else {
+                tryHeight = Math.max(failedHeight + 1, (goodHeight + failedHeight + 1) / 2);
+                tryWidth = Math.max(failedWidth + 1, (goodWidth + failedWidth + 1) / 2);
+            }
+            tryHeight = Math.min(tryHeight, goodHeight);
+            tryWidth = Math.min(tryWidth, goodWidth);
+            if (tryHeight == goodHeight && tryWidth == goodWidth) {
+                break;
+            }
+        }
+
+        if (placements == null) {
+            return null;
+        }
+        return replay(placements, order.length, this.height, this.width);
+    }
+
+    /**
+     * Searches the densest placement of all the words on a grid of the given size.
+     *
+     * @return The placement of each word, left placed on the grid of the context, or null if the words do not fit or the
+     *         time budget has run out.
+     */
+    private int[] search(int height, int width) {
+        List<int[]> beam = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        beam.add(new int[words.length]);
+        scores.add(0);
+        int[] stepCandidates = new int[words.length], stepAttempts = new int[words.length];
+        long[] stepNanos = new long[words.length];
+
+        int[] bestPlacements = new int[beamWidth], bestShared = new int[beamWidth];
+        for (int depth = 0; depth < order.length; depth++) {
+            if (System.nanoTime() > deadline) {
+                timedOut = true;
+                return null;
+            }
+            int w = order[depth];
+            String word = words[w];
+            List<int[]> children = new ArrayList<>();
+            List<Integer> childScores = new ArrayList<>();
+
+            for (int s = 0; s < beam.size(); s++) {
+                OccupancyGrid grid = replay(beam.get(s), depth, height, width);
+                PlacementList candidates = context.placementList(0, 0);
+                long start = System.nanoTime();
+                finder.find(grid, word, candidates);
+                stepNanos[w] += System.nanoTime() - start;
+                if (s == 0) {
+                    stepCandidates[w] = candidates.size();
+                }
+
+                //Shuffled first, so that the placements sharing as many letters are kept in a random order, weighted by direction.
+                candidates.shuffle(randomizer, grid.getDifficulty());
+                int kept = 0;
+                for (int i = 0; i < candidates.size(); i++) {
+                    int placement = candidates.get(i), shared = grid.coveredCells(placement, word.length());
+                    if (shared == word.length() || (kept == beamWidth && shared <= bestShared[kept - 1])) {
+                        continue;
+                    }
+                    int k = kept < beamWidth ? kept++ : kept - 1;
+                    for (; k > 0 && bestShared[k - 1] < shared; k--) {
+                        bestPlacements[k] = bestPlacements[k - 1];
+                        bestShared[k] = bestShared[k - 1];
+                    }
+                    bestPlacements[k] = placement;
+                    bestShared[k] = shared;
+                }
+
+                for (int k = 0; k < kept; k++) {
+                    int[] child = beam.get(s).clone();
+                    child[w] = bestPlacements[k];
+                    int score = scores.get(s) + bestShared[k];
+                    //The children are kept sorted by score, the ones of better partial puzzles first among equal ones.
+                    int index = children.size();
+                    while (index > 0 && childScores.get(index - 1) < score) {
+                        index--;
+                    }
+                    if (index < beamWidth) {
+                        children.add(index, child);
+                        childScores.add(index, score);
+                        stepAttempts[w]++;
+                        if (children.size() > beamWidth) {
+                            children.remove(beamWidth);
+                            childScores.remove(beamWidth);
+                        }
+                    }
+                }
+            }
+
+            if (children.isEmpty()) {
+                return null;
+            }
+            beam = children;
+            scores = childScores;
+        }
+
+        System.arraycopy(stepCandidates, 0, candidateCounts, 0, words.length);
+        System.arraycopy(stepAttempts, 0, attempts, 0, words.length);
+        System.arraycopy(stepNanos, 0, nanos, 0, words.length);
+        searchedFilledCells = replay(beam.get(0), order.length, height, width).getFilledCellCount();
+        return beam.get(0);
+    }
+
+    /**
+     * Returns the grid of the context with the first words of the placing order placed as given.
+     */
+    private OccupancyGrid replay(int[] state, int placedCount, int height, int width) {
+        OccupancyGrid grid = context.grid(height, width);
+        for (int depth = 0; depth < placedCount; depth++) {
+            int w = order[depth];
+            grid.place(words[w], grid.rowOf(state[w]), grid.columnOf(state[w]), OccupancyGrid.rotationOf(state[w]));
+        }
+        return grid;
+    }
+
+    /**
+     * @return True if the last search has been given up because the time budget ran out.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return Height of the grid of the densest puzzle found, in characters.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Width of the grid of the densest puzzle found, in characters.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return Row of the first letter of the word.
+     */
+    public int getRow(int index) {
+        return (placements[index] >>> 3) / width;
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return Column of the first letter of the word.
+     */
+    public int getColumn(int index) {
+        return (placements[index] >>> 3) % width;
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The rotation value of the word, an integer between [0,7].
+     */
+    public int getRotation(int index) {
+        return OccupancyGrid.rotationOf(placements[index]);
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The amount of fitting placements of the word in the best partial puzzle it was placed on.
+     */
+    public int getCandidateCount(int index) {
+        return candidateCounts[index];
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The amount of placements of the word that made it into the beam of partial puzzles.
+     */
+    public int getAttempts(int index) {
+        return attempts[index];
+    }
+
+    /**
+     * @param index Index of the word, in the order given to the constructor.
+     * @return The time spent finding placements for the word, in nanoseconds.
+     */
+    public long getNanos(int index) {
+        return nanos[index];
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.Locale;
+
+/**
+ * The class whose instances define how hard the words of a puzzle are to find: the directions the words may run in and
+ * how often each one is picked, the most words that may run backwards or diagonally, the least distance between two
+ * words and how evenly the words are spread over the quadrants of the grid. A profile is enforced while the fitting
+ * placements of each word are found (see {@link OccupancyGrid#setDifficulty(DifficultyProfile, int)}), so a placement
+ * breaking it is never even a candidate and a puzzle of the wanted difficulty comes out of a single generation.
+ *
+ * A word runs backwards if it is read leftwards or upwards, i.e. with a rotation between 1 and 5, and diagonally with an
+ * odd rotation. A profile does not change once it is created, so it can be shared by many generations at once.
+ */
+public class DifficultyProfile {
+    /**
+     * Words running rightwards and downwards only, none of them crossing another, spread over the whole grid.
+     */
+    public static final DifficultyProfile EASY = new DifficultyProfile(new int[]{1, 0, 0, 0, 0, 0, 1, 0}, 0, 0, 1, 0.4);
+
+    /**
+     * Words mostly running forwards, with diagonals, and up to a quarter of them backwards.
+     */
+    public static final DifficultyProfile MEDIUM = new DifficultyProfile(new int[]{3, 1, 1, 0, 1, 0, 3, 2}, 0.25, 0.5, 0, 0.5);
+
+    /**
+     * Words running in all the directions, backwards and diagonally twice as often as forwards, with no limits.
+     */
+    public static final DifficultyProfile HARD = new DifficultyProfile(new int[]{1, 2, 2, 2, 2, 2, 1, 2}, 1, 1, 0, 1);
+
+    private final int[] directionWeights;
+    private final double maxReversedShare, maxDiagonalShare, maxQuadrantShare;
+    private final int minDistance;
+
+    /**
+     * Constructor for a difficulty profile.
+     * @param directionWeights The weight of each rotation, indexed by rotation value: a placement of a word is picked
+     *                         as often as the weight of its rotation makes it among the fitting ones, and a rotation
+     *                         weighing 0 is not allowed.
+     * @param maxReversedShare The most words, as a share of the words of the puzzle between 0 and 1, that may run
+     *                         backwards; rounded down.
+     * @param maxDiagonalShare The most words, as a share of the words of the puzzle between 0 and 1, that may run
+     *                         diagonally; rounded down.
+     * @param minDistance      The least distance, in cells counting diagonal steps as one, between the letters of two
+     *                         words: 0 lets words cross where they have the same letter, 1 keeps them from crossing and
+     *                         2 also from touching.
+     * @param maxQuadrantShare The most words, as a share of the words of the puzzle between 0 and 1, that may have their
+     *                         middle letter in the same quadrant of the grid; rounded up, and at least one word.
+     * @throws IllegalArgumentException If there are not 8 weights, a weight is negative, all of them are 0, a share is
+     *                                  not between 0 and 1 or the distance is negative.
+     */
+    public DifficultyProfile(int[] directionWeights, double maxReversedShare, double maxDiagonalShare, int minDistance, double maxQuadrantShare) {
+        if (directionWeights.length != 8) {
+            throw new IllegalArgumentException("A weight is to be given for each of the 8 rotations");
+        }
+        int totalWeight = 0;
+        for (int weight : directionWeights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Invalid direction weight (" + weight + ")");
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("No direction is allowed");
+        }
+        if (!isShare(maxReversedShare) || !isShare(maxDiagonalShare) || !isShare(maxQuadrantShare) || minDistance < 0) {
+            throw new IllegalArgumentException("Invalid limits");
+        }
+        this.directionWeights = directionWeights.clone();
+        this.maxReversedShare = maxReversedShare;
+        this.maxDiagonalShare = maxDiagonalShare;
+        this.minDistance = minDistance;
+        this.maxQuadrantShare = maxQuadrantShare;
+    }
+
+    private static boolean isShare(double share) {
+        return share >= 0 && share <= 1;
+    }
+
+    /**
+     * Finds a profile by its name.
+     * @param name The name of the profile: easy, medium or hard, in any case.
+     * @return The profile, or null if there is none with the given name.
+     */
+    public static DifficultyProfile forName(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "easy":
+                return EASY;
+            case "medium":
+                return MEDIUM;
+            case "hard":
+                return HARD;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param rotation The rotation value, an integer between [0,7].
+     * @return True if a word with the given rotation is read leftwards or upwards.
+     */
+    public static boolean isReversed(int rotation) {
+        return rotation >= 1 && rotation <= 5;
+    }
+
+    /**
+     * @param rotation The rotation value, an integer between [0,7].
+     * @return True if a word with the given rotation runs diagonally.
+     */
+    public static boolean isDiagonal(int rotation) {
+        return (rotation & 1) == 1;
+    }
+
+    /**
+     * @param rotation The rotation value, an integer between [0,7].
+     * @return The weight of the given rotation; 0 if it is not allowed.
+     */
+    public int getDirectionWeight(int rotation) {
+        return directionWeights[rotation];
+    }
+
+    /**
+     * @return True if all the rotations weigh the same, so that a placement is picked uniformly among the fitting ones.
+     */
+    public boolean isUniform() {
+        for (int weight : directionWeights) {
+            if (weight != directionWeights[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param wordCount The amount of words of the puzzle.
+     * @return The most words of the puzzle that may run backwards.
+     */
+    public int getMaxReversed(int wordCount) {
+        return (int) Math.floor(maxReversedShare * wordCount);
+    }
+
+    /**
+     * @param wordCount The amount of words of the puzzle.
+     * @return The most words of the puzzle that may run diagonally.
+     */
+    public int getMaxDiagonal(int wordCount) {
+        return (int) Math.floor(maxDiagonalShare * wordCount);
+    }
+
+    /**
+     * @param wordCount The amount of words of the puzzle.
+     * @return The most words of the puzzle that may have their middle letter in the same quadrant.
+     */
+    public int getMaxPerQuadrant(int wordCount) {
+        return Math.max(1, (int) Math.ceil(maxQuadrantShare * wordCount));
+    }
+
+    /**
+     * @return The least distance between the letters of two words, in cells; 0 if words may cross.
+     */
+    public int getMinDistance() {
+        return minDistance;
+    }
+}
@@ -0,0 +1,347 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The class representing a puzzle that is edited after it has been generated, e.g. by an editor tweaking its word list
+ * live. A word is added at a random placement fitting the current grid, and removing a word only frees the cells no
+ * other word uses; the other words keep their placements. Only the cells an edit affects change: the cells of an added
+ * word, the freed cells, which are filled with random letters again, and, with a unique fill, the filler cells drawn
+ * again so that the words are not spelled anywhere else (see {@link UniqueFill}). Each edit returns the cells it has
+ * changed, so a view of the puzzle can be updated without drawing it again.
+ *
+ * An edit searches only the lines through the cells it changes. With a unique fill, adding a word also takes a pass
+ * over the cells holding its first letter, to find it spelled elsewhere, and a {@link WordFinder} of the current words
+ * is built again after each change of the words. A puzzle is not to be edited by several threads at once.
+ */
+public class EditablePuzzle {
+    private final int height, width;
+    private final String lan;
+    private final boolean isShowHint;
+    private final GenerationSettings settings;
+    private final OccupancyGrid occupancy;
+    private final char[] cells;
+    private final BitSet solution;
+    private final List<Word> words;
+    private final String[] blocked;
+    private final Alphabet alphabet;
+    private final AliasSampler sampler;
+    private final Randomizer randomizer;
+    private final CandidateFinder finder = new CandidateFinder(1);
+
+    /**
+     * The finder of the current words and the blocklist, built again only after the words have changed.
+     */
+    private WordFinder wordFinder;
+
+    /**
+     * Constructor for an editable copy of the given puzzle, whose own cells and words are left as they are.
+     * @param puzzle   The puzzle to be edited.
+     * @param settings Settings of how the added words are placed and the affected cells are filled: the seed, the
+     *                 difficulty, whose limits are shares of the words the puzzle has at first, whether the fill is
+     *                 unique, the blocklist and whether the letters are weighted by their frequency.
+     * @throws PuzzleException If the language of the puzzle has no alphabet.
+     */
+    public EditablePuzzle(WordSearchGrid puzzle, GenerationSettings settings) {
+        this.height = puzzle.getHeight();
+        this.width = puzzle.getWidth();
+        this.lan = puzzle.getLanguage();
+        this.isShowHint = puzzle.isShowHint();
+        this.settings = settings.copy();
+        this.alphabet = AlphabetRegistry.get(lan);
+        if (alphabet == null) {
+            throw new PuzzleException("Unsupported language " + lan + " (There is no alphabet for it)");
+        }
+        this.sampler = alphabet.sampler(settings.isFrequencyFill());
+        this.randomizer = settings.newRandomizer();
+
+        occupancy = new OccupancyGrid(height, width);
+        cells = new char[height * width];
+        solution = new BitSet(height * width);
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = puzzle.getCell(i / width, i % width);
+        }
+        words = new ArrayList<>(puzzle.getWords());
+        occupancy.setDifficulty(settings.getDifficulty(), words.size());
+        for (Word word : words) {
+            occupancy.place(word.getLetters(), word.getRow(), word.getColumn(), word.getRotation());
+            for (int k = 0; k < word.getLength(); k++) {
+                solution.set(word.rowAt(k) * width + word.columnAt(k));
+            }
+        }
+
+        String[] blocklist = settings.getBlocklist();
+        blocked = new String[blocklist.length];
+        for (int i = 0; i < blocklist.length; i++) {
+            blocked[i] = Word.normalize(blocklist[i], lan);
+        }
+    }
+
+    /**
+     * Adds the given word to the puzzle, at a placement picked uniformly among the ones fitting the current grid.
+     * @param word The word as given, e.g. with spaces.
+     * @return The cells changed by the edit, in row-major order.
+     * @throws PuzzleException If the word is in the puzzle already or there is no place left for it; the puzzle is then
+     *                         left as it is.
+     */
+    public List<CellChange> addWord(String word) {
+        String letters = Word.normalize(word, lan);
+        if (letters.isEmpty()) {
+            throw new PuzzleException("Invalid word (No letters)");
+        }
+        if (indexOf(letters) >= 0) {
+            throw new PuzzleException("The word " + word + " is in the puzzle already");
+        }
+        int placement = finder.pick(occupancy, letters, randomizer);
+        if (placement < 0) {
+            throw new PuzzleException("No place left for the word " + word);
+        }
+
+        int row = occupancy.rowOf(placement), column = occupancy.columnOf(placement), rotation = OccupancyGrid.rotationOf(placement);
+        Word added = new Word(word, letters, row, column, rotation, lan);
+        occupancy.place(letters, row, column, rotation);
+        words.add(added);
+        wordFinder = null;
+
+        Map<Integer, Integer> previous = new TreeMap<>();
+        BitSet searched = new BitSet(cells.length);
+        for (int k = 0; k < added.getLength(); k++) {
+            int index = added.rowAt(k) * width + added.columnAt(k);
+            remember(previous, index);
+            cells[index] = letters.charAt(k);
+            solution.set(index);
+            searched.set(index);
+        }
+        //The other words can only be spelled again across the changed cells, but the new word anywhere.
+        if (settings.isUniqueFill()) {
+            markOrigins(letters, searched);
+        }
+        return finishEdit(previous, searched);
+    }
+
+    /**
+     * Marks the cells the given word is spelled from, in any rotation. Only the cells holding its first letter are
+     * tried, so a single word is found much faster than by running the whole grid through a {@link WordFinder}.
+     */
+    private void markOrigins(String letters, BitSet origins) {
+        for (int origin = 0; origin < cells.length; origin++) {
+            if (cells[origin] != letters.charAt(0)) {
+                continue;
+            }
+            int row = origin / width, column = origin % width;
+            for (int rotation = 0; rotation < 8 && !origins.get(origin); rotation++) {
+                int rowStep = OccupancyGrid.ROW_STEPS[rotation], columnStep = OccupancyGrid.COLUMN_STEPS[rotation];
+                int k = 1;
+                for (int r = row + rowStep, c = column + columnStep; k < letters.length() && occupancy.contains(r, c)
+                        && cells[r * width + c] == letters.charAt(k); r += rowStep, c += columnStep) {
+                    k++;
+                }
+                if (k == letters.length()) {
+                    origins.set(origin);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the given word from the puzzle, freeing the cells no other word uses and filling them with random letters.
+     * @param word The word as given when it was added, or its letters.
+     * @return The cells changed by the edit, in row-major order.
+     * @throws PuzzleException If the word is not in the puzzle.
+     */
+    public List<CellChange> removeWord(String word) {
+        int index = indexOf(Word.normalize(word, lan));
+        if (index < 0) {
+            throw new PuzzleException("The word " + word + " is not in the puzzle");
+        }
+        return removeWord(index);
+    }
+
+    /**
+     * Removes the word at the given index of {@link #getWords()} from the puzzle, freeing the cells no other word uses
+     * and filling them with random letters.
+     * @param index Index of the word.
+     * @return The cells changed by the edit, in row-major order.
+     */
+    public List<CellChange> removeWord(int index) {
+        Word removed = words.remove(index);
+        occupancy.remove(removed.getLetters(), removed.getRow(), removed.getColumn(), removed.getRotation());
+        wordFinder = null;
+
+        Map<Integer, Integer> previous = new TreeMap<>();
+        BitSet searched = new BitSet(cells.length);
+        for (int k = 0; k < removed.getLength(); k++) {
+            int row = removed.rowAt(k), column = removed.columnAt(k);
+            if (occupancy.isEmpty(row, column)) {
+                remember(previous, row * width + column);
+                cells[row * width + column] = alphabet.letterAt(sampler.sample(randomizer));
+                solution.clear(row * width + column);
+                searched.set(row * width + column);
+            }
+        }
+        return finishEdit(previous, searched);
+    }
+
+    /**
+     * Breaks the occurrences of the words spelled by the filler cells because of an edit, then lists the changed cells.
+     * @param previous The cells written by the edit, each with its state before the edit.
+     * @param searched The cells the lines through which are searched for occurrences.
+     */
+    private List<CellChange> finishEdit(Map<Integer, Integer> previous, BitSet searched) {
+        if (settings.isUniqueFill()) {
+            WordFinder current = getWordFinder();
+            List<WordFinder.Occurrence> suspects = new ArrayList<>();
+            for (int cell = searched.nextSetBit(0); cell >= 0; cell = searched.nextSetBit(cell + 1)) {
+                suspects.addAll(current.findAcross(cells, height, width, cell / width, cell % width));
+            }
+            UniqueFill.repair(cells, solution, height, width, current, suspects, alphabet, sampler, randomizer, cell -> remember(previous, cell));
+        }
+
+        List<CellChange> changes = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : previous.entrySet()) {
+            int cell = entry.getKey();
+            char before = (char) (entry.getValue() & 0xFFFF);
+            boolean wasSolution = entry.getValue() > 0xFFFF;
+            if (cells[cell] != before || solution.get(cell) != wasSolution) {
+                changes.add(new CellChange(cell / width, cell % width, before, cells[cell], solution.get(cell)));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Keeps the state of the given cell before the edit, its char and whether it is covered by a word, unless it has
+     * been kept already.
+     */
+    private void remember(Map<Integer, Integer> previous, int cell) {
+        previous.putIfAbsent(cell, cells[cell] | (solution.get(cell) ? 0x10000 : 0));
+    }
+
+    /**
+     * @return The finder of the current words and the blocklist.
+     */
+    private WordFinder getWordFinder() {
+        if (wordFinder == null) {
+            String[] found = new String[words.size() + blocked.length];
+            for (int i = 0; i < words.size(); i++) {
+                found[i] = words.get(i).getLetters();
+            }
+            System.arraycopy(blocked, 0, found, words.size(), blocked.length);
+            wordFinder = new WordFinder(found);
+        }
+        return wordFinder;
+    }
+
+    /**
+     * @return The index of the word with the given letters, or -1 if there is none.
+     */
+    private int indexOf(String letters) {
+        for (int i = 0; i < words.size(); i++) {
+            if (words.get(i).getLetters().equals(letters)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return A puzzle of the current cells and words, which does not change with the later edits.
+     */
+    public WordSearchGrid toGrid() {
+        return new WordSearchGrid(cells.clone(), height, width, words, lan, isShowHint);
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return The character at the given cell, uppercase.
+     */
+    public char getCell(int row, int column) {
+        return cells[row * width + column];
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return True if a word covers the given cell, otherwise false.
+     */
+    public boolean isSolution(int row, int column) {
+        return solution.get(row * width + column);
+    }
+
+    /**
+     * @return The words of the puzzle, in the order they are listed.
+     */
+    public List<Word> getWords() {
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * @return The height of the puzzle, in characters.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The width of the puzzle, in characters.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * The class whose instances define a cell changed by an edit.
+     */
+    public static class CellChange {
+        private final int row, column;
+        private final char previous, current;
+        private final boolean solution;
+
+        private CellChange(int row, int column, char previous, char current, boolean solution) {
+            this.row = row;
+            this.column = column;
+            this.previous = previous;
+            this.current = current;
+            this.solution = solution;
+        }
+
+        /**
+         * @return Row of the cell.
+         */
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * @return Column of the cell.
+         */
+        public int getColumn() {
+            return column;
+        }
+
+        /**
+         * @return The character of the cell before the edit.
+         */
+        public char getPrevious() {
+            return previous;
+        }
+
+        /**
+         * @return The character of the cell after the edit.
+         */
+        public char getCurrent() {
+            return current;
+        }
+
+        /**
+         * @return True if a word covers the cell after the edit.
+         */
+        public boolean isSolution() {
+            return solution;
+        }
+    }
+}
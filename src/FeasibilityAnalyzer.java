@@ -0,0 +1,315 @@
+import java.util.Arrays;
+
+/**
+ * The class estimating, before any word is placed, whether a set of words is likely to fit a grid of a given size, so
+ * that a hopeless size is rejected at once instead of after a whole placement search, and so that a puzzle can be
+ * sized without generating it. The estimate only takes the amount of letters, the length of each word and the amount
+ * of slots a word of each length has in each direction of the grid, so it costs O(words) per size.
+ *
+ * The words are taken to be placed one by one, each at a random fitting slot, as {@link PlacementMode#RANDOM} does. A
+ * cell of a slot fits if it is still empty or happens to hold the letter the word needs there, so the chance that a
+ * slot of a word fits is q^length, q being the chance of a single cell, and the fitting slots of a word are counted as
+ * if each slot fitted independently. The chance of the whole puzzle is the chance that no word runs out of fitting
+ * slots. Placed longest first, as the other modes place them, it follows the sizes a placement search succeeds at.
+ * The estimate is on the cautious side: the puzzles it finds likely do succeed, and some it finds unlikely, mostly
+ * small grids of long words sharing many letters, succeed nevertheless.
+ */
+public class FeasibilityAnalyzer {
+    /**
+     * The chance a size is to have to be found likely to fit the words.
+     */
+    public static final double LIKELY_CHANCE = 0.9;
+
+    /**
+     * The chance under which a size whose cells are fewer than the letters of the words is rejected.
+     */
+    public static final double REJECTED_CHANCE = 1e-6;
+
+    private final String[] letters;
+    private final int[] order;
+    private final int totalLetters, longest;
+    private final int[] lengthCounts;
+
+    /**
+     * The chance that an occupied cell holds the letter a word needs there: the chance that two letters drawn from the
+     * letters of the words are the same.
+     */
+    private final double matchChance;
+
+    /**
+     * The rotations the words may run in.
+     */
+    private final boolean[] allowed = new boolean[8];
+
+    /**
+     * Constructor for an analyzer of the given words, placed in all the directions.
+     * @param letters  The words uppercased and without spaces, e.g. from {@link Word#normalize(String, String)}.
+     * @param order    The indices of the words in the order they are placed in.
+     * @param alphabet The alphabet of the language of the words.
+     */
+    public FeasibilityAnalyzer(String[] letters, int[] order, Alphabet alphabet) {
+        this(letters, order, alphabet, null);
+    }
+
+    /**
+     * Constructor for an analyzer of the given words, placed with the given difficulty: only the slots of the rotations
+     * it allows are counted, and words kept at a distance from each other never share a letter. Its other limits are
+     * not taken into account.
+     * @param letters    The words uppercased and without spaces, e.g. from {@link Word#normalize(String, String)}.
+     * @param order      The indices of the words in the order they are placed in.
+     * @param alphabet   The alphabet of the language of the words.
+     * @param difficulty The difficulty the placements meet, or null for none.
+     */
+    public FeasibilityAnalyzer(String[] letters, int[] order, Alphabet alphabet, DifficultyProfile difficulty) {
+        this.letters = letters;
+        this.order = order;
+        for (int rotation = 0; rotation < 8; rotation++) {
+            allowed[rotation] = difficulty == null || difficulty.getDirectionWeight(rotation) > 0;
+        }
+
+        //The letters out of the alphabet, if there are any, are counted together.
+        int[] letterCounts = new int[alphabet.size() + 1];
+        int total = 0, maxLength = 0;
+        for (String word : letters) {
+            for (int k = 0; k < word.length(); k++) {
+                letterCounts[alphabet.indexOf(word.charAt(k)) + 1]++;
+            }
+            total += word.length();
+            maxLength = Math.max(maxLength, word.length());
+        }
+        totalLetters = total;
+        longest = maxLength;
+        lengthCounts = new int[maxLength + 1];
+        for (String word : letters) {
+            lengthCounts[word.length()]++;
+        }
+        double match = 0;
+        for (int count : letterCounts) {
+            match += total == 0 ? 0 : ((double) count / total) * ((double) count / total);
+        }
+        matchChance = difficulty != null && difficulty.getMinDistance() > 0 ? 0 : match;
+    }
+
+    /**
+     * Creates an analyzer of the given words, in the order the given mode places them in.
+     * @param words The words as given, e.g. with spaces.
+     * @param lan   Language of the words, one with an {@link Alphabet}.
+     * @param mode  The way the words are to be placed.
+     * @return The analyzer.
+     * @throws PuzzleException If the language has no alphabet.
+     */
+    public static FeasibilityAnalyzer forWords(String[] words, String lan, PlacementMode mode) {
+        return forWords(words, lan, mode, null);
+    }
+
+    /**
+     * Creates an analyzer of the given words, in the order the given mode places them in, with the given difficulty.
+     * @param words      The words as given, e.g. with spaces.
+     * @param lan        Language of the words, one with an {@link Alphabet}.
+     * @param mode       The way the words are to be placed.
+     * @param difficulty The difficulty the placements are to meet, or null for none.
+     * @return The analyzer.
+     * @throws PuzzleException If the language has no alphabet.
+     */
+    public static FeasibilityAnalyzer forWords(String[] words, String lan, PlacementMode mode, DifficultyProfile difficulty) {
+        Alphabet alphabet = AlphabetRegistry.get(lan);
+        if (alphabet == null) {
+            throw new PuzzleException("Unsupported language " + lan + " (There is no alphabet for it)");
+        }
+        String[] letters = new String[words.length];
+        Integer[] sorted = new Integer[words.length];
+        for (int i = 0; i < words.length; i++) {
+            letters[i] = Word.normalize(words[i], lan);
+            sorted[i] = i;
+        }
+        if (mode != PlacementMode.RANDOM) { //Stable, so that words of the same length keep the order they are given in.
+            Arrays.sort(sorted, (a, b) -> letters[b].length() - letters[a].length());
+        }
+        int[] order = new int[words.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = sorted[i];
+        }
+        return new FeasibilityAnalyzer(letters, order, alphabet, difficulty);
+    }
+
+    /**
+     * Estimates whether the words fit a grid of the given size.
+     * @param height Height of the grid, in characters.
+     * @param width  Width of the grid, in characters.
+     * @return The estimate.
+     */
+    public Feasibility analyze(int height, int width) {
+        double cells = (double) height * width, filled = 0, logChance = 0;
+        for (int w : order) {
+            int length = letters[w].length();
+            if (length == 0) {
+                continue;
+            }
+            double q = 1 - filled / cells * (1 - matchChance);
+            double expected = totalSlotCount(length, height, width) * Math.pow(q, length);
+            logChance += Math.log(-Math.expm1(-expected));
+            //Only the cells of the word that were empty are newly filled; the others were shared with earlier words.
+            filled += length * (1 - filled / cells) / q;
+        }
+        return new Feasibility(height, width, Math.exp(logChance));
+    }
+
+    /**
+     * Finds the smallest grid the words are likely to fit, with the proportions of the given size, neither of its sides
+     * shorter than the longest word. The grid may be smaller or larger than the given size.
+     * @param height Height of a grid of the proportions wanted, in characters.
+     * @param width  Width of a grid of the proportions wanted, in characters.
+     * @return The estimate of the grid found.
+     */
+    public Feasibility smallestLikely(int height, int width) {
+        double ratio = (double) width / height;
+        int minimumSide = Math.max(1, longest);
+        //The height is searched for, the width following it; the chance only grows with the grid.
+        int low = minimumSide, high = minimumSide;
+        Feasibility found = analyze(high, sideFor(high, ratio, minimumSide));
+        while (!found.isLikely()) {
+            low = high + 1;
+            high = Math.max(high * 2, minimumSide + 1);
+            found = analyze(high, sideFor(high, ratio, minimumSide));
+        }
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Feasibility tried = analyze(middle, sideFor(middle, ratio, minimumSide));
+            if (tried.isLikely()) {
+                found = tried;
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The width of the given height in the given proportions, at least the given minimum.
+     */
+    private static int sideFor(int height, double ratio, int minimumSide) {
+        return Math.max(minimumSide, (int) Math.round(height * ratio));
+    }
+
+    /**
+     * Counts the slots a word of the given length has in the given direction on a grid of the given size.
+     * @param length   The letters of the word.
+     * @param rotation The rotation value of the direction, an integer between [0,7].
+     * @param height   Height of the grid, in characters.
+     * @param width    Width of the grid, in characters.
+     * @return The amount of origins keeping the word within the grid in that direction.
+     */
+    public static long slotCount(int length, int rotation, int height, int width) {
+        long rows = OccupancyGrid.ROW_STEPS[rotation] == 0 ? height : Math.max(0, height - length + 1);
+        long columns = OccupancyGrid.COLUMN_STEPS[rotation] == 0 ? width : Math.max(0, width - length + 1);
+        return rows * columns;
+    }
+
+    /**
+     * @return The amount of slots of a word of the given length in all the directions allowed; a single letter only has
+     *         one slot per cell.
+     */
+    private double totalSlotCount(int length, int height, int width) {
+        if (length == 1) {
+            return (double) height * width;
+        }
+        double slots = 0;
+        for (int rotation = 0; rotation < 8; rotation++) {
+            if (allowed[rotation]) {
+                slots += slotCount(length, rotation, height, width);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * @return The total amount of letters of the words.
+     */
+    public int getTotalLetters() {
+        return totalLetters;
+    }
+
+    /**
+     * @return The letters of the longest word.
+     */
+    public int getLongestLetterCount() {
+        return longest;
+    }
+
+    /**
+     * @param length An amount of letters.
+     * @return The amount of words of the given length.
+     */
+    public int getLengthCount(int length) {
+        return length < lengthCounts.length ? lengthCounts[length] : 0;
+    }
+
+    /**
+     * The class whose instances define the estimate of a grid size.
+     */
+    public class Feasibility {
+        private final int height, width;
+        private final double chance;
+
+        private Feasibility(int height, int width, double chance) {
+            this.height = height;
+            this.width = width;
+            this.chance = chance;
+        }
+
+        /**
+         * @return Height of the grid, in characters.
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * @return Width of the grid, in characters.
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * @return The estimated chance that the words are placed on the grid, between 0 and 1.
+         */
+        public double getChance() {
+            return chance;
+        }
+
+        /**
+         * @return The letters of the words per cell of the grid; above 1, the words only fit by sharing letters.
+         */
+        public double getLoad() {
+            return (double) totalLetters / ((double) height * width);
+        }
+
+        /**
+         * @param length   The letters of a word.
+         * @param rotation The rotation value of a direction, an integer between [0,7].
+         * @return The amount of slots a word of the given length has in the given direction on the grid.
+         */
+        public long getSlotCount(int length, int rotation) {
+            return slotCount(length, rotation, height, width);
+        }
+
+        /**
+         * @return True if the words are likely to fit the grid, their chance being at least
+         *         {@value FeasibilityAnalyzer#LIKELY_CHANCE}.
+         */
+        public boolean isLikely() {
+            return chance >= LIKELY_CHANCE;
+        }
+
+        /**
+         * @return True if the words are not worth a placement search on the grid: the grid has fewer cells than they
+         *         have letters and their chance is less than {@value FeasibilityAnalyzer#REJECTED_CHANCE}. A longest
+         *         word that does not fit the grid at all is always rejected.
+         */
+        public boolean isRejected() {
+            return longest > Math.max(height, width) || (getLoad() > 1 && chance < REJECTED_CHANCE);
+        }
+    }
+}
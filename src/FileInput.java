@@ -1,6 +1,8 @@
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class FileInput {
@@ -10,21 +12,37 @@ public class FileInput {
      * @param path              Path to the file that is going to be read.
      * @param discardEmptyLines If true, discards empty lines with respect to trim; else, it takes all the lines from the file.
      * @param trim              Trim status; if true, trims (strip in Python) each line; else, it leaves each line as-is.
-     * @return Contents of the file as a string array, returns null if there is not such a file or this program does not have sufficient permissions to read that file.
+     * @return Contents of the file as a string array.
+     * @throws PuzzleException If there is not such a file or this program does not have sufficient permissions to read that file.
      */
     public static String[] readFile(String path, boolean discardEmptyLines, boolean trim) {
         try {
-            List<String> lines = Files.readAllLines(Paths.get(path)); //Gets the content of file to the list.
-            if (discardEmptyLines) { //Removes the lines that are empty with respect to trim.
-                lines.removeIf(line -> line.trim().equals(""));
-            }
-            if (trim) { //Trims each line.
-                lines.replaceAll(String::trim);
-            }
-            return lines.toArray(new String[0]);
-        } catch (IOException e) { //Returns null if there is no such a file.
-            Error.errorMessage("Invalid input file (No such file exists)");
-            return null;
+            return cleanLines(Files.readAllLines(Paths.get(path)), discardEmptyLines, trim); //Gets the content of file to the list.
+        } catch (IOException e) { //Fails the puzzle if there is no such a file.
+            throw new PuzzleException("Invalid input file (No such file exists)");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Splits the given text into its lines and returns them in a string array, the same way as {@link #readFile(String, boolean, boolean)}
+     * does for the contents of a file.
+     *
+     * @param text              The text, e.g. the body of a request, in the format of an input file.
+     * @param discardEmptyLines If true, discards empty lines with respect to trim; else, it takes all the lines from the text.
+     * @param trim              Trim status; if true, trims (strip in Python) each line; else, it leaves each line as-is.
+     * @return Lines of the text as a string array.
+     */
+    public static String[] readText(String text, boolean discardEmptyLines, boolean trim) {
+        return cleanLines(new ArrayList<>(Arrays.asList(text.split("\r\n|\r|\n"))), discardEmptyLines, trim);
+    }
+
+    private static String[] cleanLines(List<String> lines, boolean discardEmptyLines, boolean trim) {
+        if (discardEmptyLines) { //Removes the lines that are empty with respect to trim.
+            lines.removeIf(line -> line.trim().equals(""));
+        }
+        if (trim) { //Trims each line.
+            lines.replaceAll(String::trim);
+        }
+        return lines.toArray(new String[0]);
+    }
+}
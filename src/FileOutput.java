@@ -1,6 +1,15 @@
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 public class FileOutput {
     /**
@@ -10,6 +19,7 @@ public class FileOutput {
      * @param content Content that is going to be written to file.
      * @param append  Append status, true if wanted to append to file if it exists, false if wanted to create file from zero.
      * @param newLine True if wanted to append a new line after content, false if vice versa.
+     * @throws PuzzleException If the file cannot be created or opened for writing.
      */
     public static void writeToFile(String path, String content, boolean append, boolean newLine) {
         PrintStream ps = null;
@@ -17,7 +27,7 @@ public class FileOutput {
             ps = new PrintStream(new FileOutputStream(path, append));
             ps.print(content + (newLine ? "\n" : ""));
         } catch (FileNotFoundException e) {
-            e.printStackTrace();
+            throw new PuzzleException("Invalid output file (" + e.getMessage() + ")");
         } finally {
             if (ps != null) { //Flushes all the content and closes the stream if it has been successfully created.
                 ps.flush();
@@ -25,4 +35,61 @@ public class FileOutput {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * This method streams the given puzzle to file at given path, without putting its whole text together in memory.
+     *
+     * @param path   Path for the file the puzzle is going to be written.
+     * @param puzzle The puzzle that is going to be written to file.
+     * @param append Append status, true if wanted to append to file if it exists, false if wanted to create file from zero.
+     * @throws PuzzleException If the file cannot be created, opened or written.
+     */
+    public static void writeToFile(String path, WordSearchGrid puzzle, boolean append) {
+        try (OutputStream stream = new FileOutputStream(path, append)) {
+            puzzle.writeTo(stream, Charset.defaultCharset());
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid output file (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * This method writes the given puzzle to files in each of the given formats, all of them rendered from the same
+     * layout: the first format to the file at the given path, and each other one to a file next to it, named after it
+     * with the extension of the format instead of its own (e.g. puzzle.html next to puzzle.txt). The files are created
+     * from zero.
+     *
+     * @param path      Path for the file the puzzle is going to be written in the first format.
+     * @param puzzle    The puzzle that is going to be written to files.
+     * @param renderers The renderers of the formats, at least one.
+     * @throws PuzzleException If a file cannot be created, opened or written.
+     */
+    public static void writeToFiles(String path, WordSearchGrid puzzle, List<PuzzleRenderer> renderers) {
+        String[] paths = new String[renderers.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = i == 0 ? path : siblingPath(path, renderers.get(i).getExtension());
+            for (int j = 0; j < i; j++) {
+                if (paths[j].equals(paths[i])) {
+                    throw new PuzzleException("Invalid output file (" + paths[i] + " would be written in two formats)");
+                }
+            }
+        }
+        for (int i = 0; i < paths.length; i++) {
+            PuzzleRenderer renderer = renderers.get(i);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(paths[i]), renderer.getCharset()))) {
+                puzzle.render(renderer, writer);
+            } catch (IOException e) {
+                throw new PuzzleException("Invalid output file (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the file next to the given one with the same name but the given extension.
+     */
+    private static String siblingPath(String path, String extension) {
+        Path file = Paths.get(path);
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return file.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + "." + extension).toString();
+    }
+}
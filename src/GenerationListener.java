@@ -0,0 +1,28 @@
+/**
+ * The interface of the listeners notified about the generation of a puzzle, to see where its time goes. Both methods
+ * are called on the thread generating the puzzle.
+ */
+public interface GenerationListener {
+
+    /**
+     * Called once the placement of a word is final.
+     *
+     * @param word       The word as given to the puzzle.
+     * @param candidates The amount of fitting placements the word had when its final placement was picked.
+     * @param attempts   The amount of placements tried for the word, including the final one.
+     * @param rejections The amount of tried placements given up because of conflicts with other words.
+     * @param nanos      The time spent finding placements for the word, in nanoseconds.
+     */
+    void wordPlaced(String word, int candidates, int attempts, int rejections, long nanos);
+
+    /**
+     * Called once the puzzle has been generated.
+     *
+     * @param height      Height of the grid, in characters.
+     * @param width       Width of the grid, in characters.
+     * @param wordCells   The amount of cells covered by words, the rest being filled with random letters.
+     * @param randomDraws The amount of random numbers drawn for the puzzle.
+     * @param nanos       The time the whole generation took, in nanoseconds.
+     */
+    void generationFinished(int height, int width, int wordCells, long randomDraws, long nanos);
+}
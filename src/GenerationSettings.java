@@ -0,0 +1,254 @@
+/**
+ * The class whose instances define how a puzzle is generated, apart from its words and size.
+ */
+public class GenerationSettings {
+    private PlacementMode placementMode = PlacementMode.RANDOM;
+    private long timeBudgetMillis = 10_000;
+    private double targetDensity;
+    private Long seed;
+    private int parallelism = 1;
+    private GenerationListener listener;
+    private boolean uniqueFill = true;
+    private boolean frequencyFill;
+    private boolean autoSize;
+    private DifficultyProfile difficulty;
+    private String[] blocklist = new String[0];
+    private long maxCells = OccupancyGrid.MAX_CELLS;
+
+    /**
+     * @return A copy of these settings, which can be changed without changing these ones.
+     */
+    public GenerationSettings copy() {
+        GenerationSettings copy = new GenerationSettings();
+        copy.placementMode = placementMode;
+        copy.timeBudgetMillis = timeBudgetMillis;
+        copy.targetDensity = targetDensity;
+        copy.seed = seed;
+        copy.parallelism = parallelism;
+        copy.listener = listener;
+        copy.uniqueFill = uniqueFill;
+        copy.frequencyFill = frequencyFill;
+        copy.autoSize = autoSize;
+        copy.difficulty = difficulty;
+        copy.blocklist = blocklist;
+        copy.maxCells = maxCells;
+        return copy;
+    }
+
+    /**
+     * @return A new random source for generating a puzzle: seeded with {@link #getSeed()} if there is one, so that the
+     *         same seed gives the same puzzle, otherwise drawing from the random generator of the calling thread.
+     */
+    public Randomizer newRandomizer() {
+        return seed == null ? Randomizer.threadLocal() : Randomizer.seeded(seed);
+    }
+
+    /**
+     * @return The way the words are placed in the puzzle.
+     */
+    public PlacementMode getPlacementMode() {
+        return placementMode;
+    }
+
+    /**
+     * @param placementMode The way the words are placed in the puzzle.
+     * @return This settings instance.
+     */
+    public GenerationSettings setPlacementMode(PlacementMode placementMode) {
+        this.placementMode = placementMode;
+        return this;
+    }
+
+    /**
+     * @return The time, in milliseconds, a placement search may take before it is given up.
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * @param timeBudgetMillis The time, in milliseconds, a placement search may take before it is given up.
+     * @return This settings instance.
+     */
+    public GenerationSettings setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        return this;
+    }
+
+    /**
+     * @return The share of the cells to be covered by words in {@link PlacementMode#DENSE}, between 0 and 1.
+     */
+    public double getTargetDensity() {
+        return targetDensity;
+    }
+
+    /**
+     * @param targetDensity The share of the cells to be covered by words in {@link PlacementMode#DENSE}, between 0
+     *                      and 1, e.g. 0.7. The grid is shrunk from the size of the puzzle until the words reach it or
+     *                      the time budget runs out; with 0, the default, the grid keeps the size of the puzzle.
+     * @return This settings instance.
+     */
+    public GenerationSettings setTargetDensity(double targetDensity) {
+        this.targetDensity = targetDensity;
+        return this;
+    }
+
+    /**
+     * @return The seed of the random values of the puzzle, or null if the puzzle is not to be reproducible.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param seed The seed of the random values of the puzzle, or null if the puzzle is not to be reproducible.
+     * @return This settings instance.
+     */
+    public GenerationSettings setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @return The amount of threads evaluating the placements of a word at the same time within a single puzzle.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism The amount of threads evaluating the placements of a word at the same time within a single
+     *                    puzzle. It only pays off for very large puzzles; with 1, the default, a puzzle is generated
+     *                    on a single thread. It does not change the puzzle generated for a seed.
+     * @return This settings instance.
+     */
+    public GenerationSettings setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return The listener notified about the generation of the puzzle, or null if there is none.
+     */
+    public GenerationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @param listener The listener notified about the generation of the puzzle, or null for none.
+     * @return This settings instance.
+     */
+    public GenerationSettings setListener(GenerationListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * @return True if the random letters around the words are to spell neither a word of the puzzle a second time nor
+     *         a word of the blocklist.
+     */
+    public boolean isUniqueFill() {
+        return uniqueFill;
+    }
+
+    /**
+     * @param uniqueFill True, the default, if the random letters around the words are to spell neither a word of the
+     *                   puzzle a second time nor a word of the blocklist (see {@link UniqueFill}); false if they are
+     *                   only drawn at random, which draws fewer random values.
+     * @return This settings instance.
+     */
+    public GenerationSettings setUniqueFill(boolean uniqueFill) {
+        this.uniqueFill = uniqueFill;
+        return this;
+    }
+
+    /**
+     * @return True if the random letters are drawn as often as the weights of their alphabet make them.
+     */
+    public boolean isFrequencyFill() {
+        return frequencyFill;
+    }
+
+    /**
+     * @param frequencyFill True if the random letters are drawn as often as the weights of their {@link Alphabet}
+     *                      make them, e.g. the frequencies of the letters in the language; false, the default, if all
+     *                      the letters are as likely.
+     * @return This settings instance.
+     */
+    public GenerationSettings setFrequencyFill(boolean frequencyFill) {
+        this.frequencyFill = frequencyFill;
+        return this;
+    }
+
+    /**
+     * @return True if the size of the puzzle is picked by {@link FeasibilityAnalyzer} instead of taken as given.
+     */
+    public boolean isAutoSize() {
+        return autoSize;
+    }
+
+    /**
+     * @param autoSize True if the puzzle is to be the smallest grid its words are likely to fit, with the proportions
+     *                 of the size given, which may be smaller or larger (see {@link FeasibilityAnalyzer}); false, the
+     *                 default, if the size given is kept, only enlarged for the longest word.
+     * @return This settings instance.
+     */
+    public GenerationSettings setAutoSize(boolean autoSize) {
+        this.autoSize = autoSize;
+        return this;
+    }
+
+    /**
+     * @return The difficulty the placements of the words meet, or null if there is none.
+     */
+    public DifficultyProfile getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @param difficulty The difficulty the placements of the words are to meet, e.g. {@link DifficultyProfile#EASY};
+     *                   or null, the default, for words running in all the directions without limits.
+     * @return This settings instance.
+     */
+    public GenerationSettings setDifficulty(DifficultyProfile difficulty) {
+        this.difficulty = difficulty;
+        return this;
+    }
+
+    /**
+     * @return The words not to be spelled by the random letters of the puzzle, as given.
+     */
+    public String[] getBlocklist() {
+        return blocklist;
+    }
+
+    /**
+     * @param blocklist The words not to be spelled by the random letters of the puzzle, as given; they are normalized
+     *                  in the language of each puzzle. The array is kept, not copied, so that the puzzles generated
+     *                  with it share the search for its words.
+     * @return This settings instance.
+     */
+    public GenerationSettings setBlocklist(String[] blocklist) {
+        this.blocklist = blocklist;
+        return this;
+    }
+
+    /**
+     * @return The most cells the grid of the puzzle may have, once it is enlarged for the longest word or sized
+     *         automatically.
+     */
+    public long getMaxCells() {
+        return maxCells;
+    }
+
+    /**
+     * @param maxCells The most cells the grid of the puzzle may have, once it is enlarged for the longest word or sized
+     *                 automatically; a larger grid fails the puzzle. It is at most {@link OccupancyGrid#MAX_CELLS}, the
+     *                 default, which larger values are taken as.
+     * @return This settings instance.
+     */
+    public GenerationSettings setMaxCells(long maxCells) {
+        this.maxCells = Math.min(maxCells, OccupancyGrid.MAX_CELLS);
+        return this;
+    }
+}
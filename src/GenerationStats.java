@@ -0,0 +1,165 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The listener collecting the statistics of the generation of a single puzzle, which can be written as JSON or CSV to
+ * tune grid sizes and word lists. An instance is not meant to be shared between puzzles generated at the same time.
+ */
+public class GenerationStats implements GenerationListener {
+    private final String puzzle;
+    private final List<WordStats> words = new ArrayList<>();
+    private int height, width, wordCells;
+    private long randomDraws, nanos;
+    private boolean finished;
+
+    /**
+     * Constructor for the statistics of a puzzle.
+     * @param puzzle The name of the puzzle the statistics are written with, e.g. its input file.
+     */
+    public GenerationStats(String puzzle) {
+        this.puzzle = puzzle;
+    }
+
+    @Override
+    public void wordPlaced(String word, int candidates, int attempts, int rejections, long nanos) {
+        words.add(new WordStats(word, candidates, attempts, rejections, nanos));
+    }
+
+    @Override
+    public void generationFinished(int height, int width, int wordCells, long randomDraws, long nanos) {
+        this.height = height;
+        this.width = width;
+        this.wordCells = wordCells;
+        this.randomDraws = randomDraws;
+        this.nanos = nanos;
+        this.finished = true;
+    }
+
+    /**
+     * Records the time the generation took before it failed, so that a failed puzzle has its time in the statistics
+     * even if none of its words was placed. Nothing is recorded if the generation has finished.
+     * @param nanos The time the generation took until it failed, in nanoseconds.
+     */
+    public void generationFailed(long nanos) {
+        if (!finished) {
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * @return The fraction of the cells covered by words, or 0 if the generation has not finished.
+     */
+    public double getDensity() {
+        return finished ? (double) wordCells / (height * width) : 0;
+    }
+
+    /**
+     * Writes the statistics of the given puzzles to the file at the given path, as JSON if the path ends with .json and
+     * as CSV otherwise.
+     * @param path  Path for the file the statistics are going to be written.
+     * @param stats The statistics of the puzzles.
+     * @throws PuzzleException If the file cannot be written.
+     */
+    public static void writeToFile(String path, List<GenerationStats> stats) {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (path.toLowerCase(Locale.ROOT).endsWith(".json")) {
+                writeJson(writer, stats);
+            } else {
+                writeCsv(writer, stats);
+            }
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid statistics file (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Writes the statistics of the given puzzles as a JSON document, an object with a "puzzles" array.
+     * @param writer The writer to write the document to.
+     * @param stats  The statistics of the puzzles.
+     * @throws IOException If the writer fails.
+     */
+    public static void writeJson(Writer writer, List<GenerationStats> stats) throws IOException {
+        writer.write("{\"puzzles\": [");
+        for (int i = 0; i < stats.size(); i++) {
+            GenerationStats puzzleStats = stats.get(i);
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write(String.format(Locale.ROOT,
+                    "  {\"puzzle\": %s, \"finished\": %b, \"height\": %d, \"width\": %d, \"density\": %.4f, \"randomDraws\": %d, \"millis\": %.3f, \"words\": [",
+                    quote(puzzleStats.puzzle), puzzleStats.finished, puzzleStats.height, puzzleStats.width,
+                    puzzleStats.getDensity(), puzzleStats.randomDraws, puzzleStats.nanos / 1e6));
+            for (int j = 0; j < puzzleStats.words.size(); j++) {
+                WordStats word = puzzleStats.words.get(j);
+                writer.write(j == 0 ? "\n" : ",\n");
+                writer.write(String.format(Locale.ROOT,
+                        "    {\"word\": %s, \"candidates\": %d, \"attempts\": %d, \"rejections\": %d, \"millis\": %.3f}",
+                        quote(word.word), word.candidates, word.attempts, word.rejections, word.nanos / 1e6));
+            }
+            writer.write(puzzleStats.words.isEmpty() ? "]}" : "\n  ]}");
+        }
+        writer.write(stats.isEmpty() ? "]}\n" : "\n]}\n");
+    }
+
+    /**
+     * Writes the statistics of the given puzzles as CSV, a line for each word repeating the figures of its puzzle, and
+     * a line with empty word columns for a puzzle none of whose words was placed, e.g. one that failed.
+     * @param writer The writer to write the lines to.
+     * @param stats  The statistics of the puzzles.
+     * @throws IOException If the writer fails.
+     */
+    public static void writeCsv(Writer writer, List<GenerationStats> stats) throws IOException {
+        writer.write("puzzle,finished,height,width,density,randomDraws,millis,word,candidates,attempts,rejections,wordMillis\n");
+        for (GenerationStats puzzleStats : stats) {
+            String puzzleColumns = String.format(Locale.ROOT, "%s,%b,%d,%d,%.4f,%d,%.3f",
+                    csvField(puzzleStats.puzzle), puzzleStats.finished, puzzleStats.height, puzzleStats.width,
+                    puzzleStats.getDensity(), puzzleStats.randomDraws, puzzleStats.nanos / 1e6);
+            for (WordStats word : puzzleStats.words) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.3f\n", puzzleColumns, csvField(word.word),
+                        word.candidates, word.attempts, word.rejections, word.nanos / 1e6));
+            }
+            if (puzzleStats.words.isEmpty()) {
+                writer.write(puzzleColumns + ",,,,,\n");
+            }
+        }
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String csvField(String text) {
+        return text.contains(",") || text.contains("\"") ? "\"" + text.replace("\"", "\"\"") + "\"" : text;
+    }
+
+    /**
+     * The class whose instances define the statistics of a single word.
+     */
+    private static class WordStats {
+        private final String word;
+        private final int candidates, attempts, rejections;
+        private final long nanos;
+
+        private WordStats(String word, int candidates, int attempts, int rejections, long nanos) {
+            this.word = word;
+            this.candidates = candidates;
+            this.attempts = attempts;
+            this.rejections = rejections;
+            this.nanos = nanos;
+        }
+    }
+}
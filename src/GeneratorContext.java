@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The class holding the working state of a generation that can be reused from one puzzle to the next: the occupancy
+ * grid, which is cleared instead of created again while the puzzle size stays the same, the candidate finder and its
+ * bitsets, the placement lists of the backtracking search and the last word list, normalized through a {@link WordListCache}. Generating
+ * puzzles of the same size with a context therefore allocates nothing while placing the words once it has warmed up;
+ * only the puzzle itself is created.
+ *
+ * A context is used by a single generation at a time, so it is not to be shared between threads; a worker thread
+ * generating many puzzles keeps one of its own.
+ */
+public class GeneratorContext implements AutoCloseable {
+    private OccupancyGrid grid;
+    private CandidateFinder finder;
+    private int parallelism;
+    private DifficultyProfile difficulty;
+    private int difficultyWordCount;
+
+    /**
+     * The cache the word lists are normalized through, and the last list normalized.
+     */
+    private final WordListCache wordListCache;
+    private WordListCache.WordList wordList;
+    private String lastLanguage;
+
+    /**
+     * Two placement lists for each depth of the backtracking search: the ones of the most constrained word so far and
+     * the ones of the word being evaluated.
+     */
+    private final List<PlacementList[]> placementLists = new ArrayList<>();
+
+    /**
+     * Constructor for a GeneratorContext normalizing word lists through the shared {@link WordListCache}.
+     */
+    public GeneratorContext() {
+        this(WordListCache.shared());
+    }
+
+    /**
+     * Constructor for a GeneratorContext.
+     * @param wordListCache The cache to normalize word lists through.
+     */
+    public GeneratorContext(WordListCache wordListCache) {
+        this.wordListCache = wordListCache;
+    }
+
+    /**
+     * Returns an empty occupancy grid of the given size, clearing the one of the last puzzle if it has the same size,
+     * with the difficulty last set.
+     *
+     * @param height Height of the grid, in characters.
+     * @param width  Width of the grid, in characters.
+     * @return The empty grid.
+     */
+    public OccupancyGrid grid(int height, int width) {
+        if (grid == null || grid.getHeight() != height || grid.getWidth() != width) {
+            grid = new OccupancyGrid(height, width);
+        } else {
+            grid.clear();
+        }
+        grid.setDifficulty(difficulty, difficultyWordCount);
+        return grid;
+    }
+
+    /**
+     * Sets the difficulty the grids returned from now on are to meet (see
+     * {@link OccupancyGrid#setDifficulty(DifficultyProfile, int)}).
+     *
+     * @param difficulty The difficulty, or null for none.
+     * @param wordCount  The amount of words of the puzzle being generated.
+     */
+    public void setDifficulty(DifficultyProfile difficulty, int wordCount) {
+        this.difficulty = difficulty;
+        this.difficultyWordCount = wordCount;
+    }
+
+    /**
+     * Returns the candidate finder of the given parallelism, creating it only if the last one had another parallelism.
+     *
+     * @param parallelism The amount of worker threads of the finder.
+     * @return The finder, closed together with this context.
+     */
+    public CandidateFinder finder(int parallelism) {
+        if (finder == null || this.parallelism != parallelism) {
+            if (finder != null) {
+                finder.close();
+            }
+            finder = new CandidateFinder(parallelism);
+            this.parallelism = parallelism;
+        }
+        return finder;
+    }
+
+    /**
+     * Returns the normalized form of the given word list from the cache of this context, skipping even the lookup if
+     * the words are the same strings, in the same language, as the ones of the last call.
+     *
+     * @param words    The words as given.
+     * @param language The language representative synonym String.
+     * @return The normalized word list.
+     */
+    public WordListCache.WordList wordList(String[] words, String language) {
+        if (!isLastWordList(words, language)) {
+            wordList = wordListCache.get(words, language);
+            lastLanguage = language;
+        }
+        return wordList;
+    }
+
+    private boolean isLastWordList(String[] words, String language) {
+        if (wordList == null || words.length != wordList.getWords().length || !language.equals(lastLanguage)) {
+            return false;
+        }
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != wordList.getWords()[i]) { //The same strings are known to normalize to the same letters.
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns one of the placement lists of the given depth of a search, emptied.
+     *
+     * @param depth Depth of the search.
+     * @param index Index of the list within the depth, 0 or 1.
+     * @return The empty list.
+     */
+    public PlacementList placementList(int depth, int index) {
+        while (placementLists.size() <= depth) {
+            placementLists.add(new PlacementList[]{new PlacementList(), new PlacementList()});
+        }
+        PlacementList list = placementLists.get(depth)[index];
+        list.clear();
+        return list;
+    }
+
+    /**
+     * Shuts the worker threads of the candidate finder down, if there are any.
+     */
+    @Override
+    public void close() {
+        if (finder != null) {
+            finder.close();
+            finder = null;
+        }
+    }
+
+    /**
+     * The class keeping a context for each thread that asks for one, for pools of worker threads generating puzzles.
+     */
+    public static class PerThread implements AutoCloseable {
+        private final Queue<GeneratorContext> contexts = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<GeneratorContext> local = ThreadLocal.withInitial(() -> {
+            GeneratorContext context = new GeneratorContext();
+            contexts.add(context);
+            return context;
+        });
+
+        /**
+         * @return The context of the current thread, created by its first call.
+         */
+        public GeneratorContext get() {
+            return local.get();
+        }
+
+        /**
+         * Closes the contexts of all the threads, to be called once none of them generates puzzles anymore.
+         */
+        @Override
+        public void close() {
+            for (GeneratorContext context; (context = contexts.poll()) != null; ) {
+                context.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The renderer writing the solution of a puzzle as an SVG overlay: a translucent stroke along each word, from the
+ * center of its first letter to the center of its last one, with nothing else drawn. The overlay has the size of the
+ * image written by {@link SvgRenderer}, so laying one over the other shows the solution on the puzzle.
+ */
+public class HighlightRenderer implements PuzzleRenderer {
+
+    @Override
+    public void render(PuzzleLayout layout, Writer writer) throws IOException {
+        SvgRenderer.writeHeader(layout, writer);
+        writer.write("<g fill=\"none\" stroke=\"#f5c400\" stroke-opacity=\"0.5\" stroke-width=\"");
+        PuzzleLayout.writeNumber(writer, PuzzleLayout.CELL * 4 / 5);
+        writer.write("\" stroke-linecap=\"round\">\n");
+        for (int w = 0; w < layout.getWordCount(); w++) {
+            writer.write("<line x1=\"");
+            PuzzleLayout.writeNumber(writer, layout.getStartX(w));
+            writer.write("\" y1=\"");
+            PuzzleLayout.writeNumber(writer, layout.getStartY(w));
+            writer.write("\" x2=\"");
+            PuzzleLayout.writeNumber(writer, layout.getEndX(w));
+            writer.write("\" y2=\"");
+            PuzzleLayout.writeNumber(writer, layout.getEndY(w));
+            writer.write("\"/>\n");
+        }
+        writer.write("</g>\n</svg>\n");
+    }
+
+    @Override
+    public String getExtension() {
+        return "highlight.svg";
+    }
+}
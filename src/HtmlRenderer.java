@@ -0,0 +1,63 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * The renderer writing a puzzle as a standalone HTML page: the grid as a table, the words to find as a list, and, if
+ * the solution is to be shown, the grid again with the cells covered by words highlighted.
+ */
+public class HtmlRenderer implements PuzzleRenderer {
+    private static final String STYLE = "table.grid{border-collapse:collapse;font-family:monospace;font-size:1.4em}"
+            + "table.grid td{width:1.6em;height:1.6em;text-align:center;border:1px solid #ccc}"
+            + "table.grid td.found{background:#ffe680;font-weight:bold}ul.words{columns:4}";
+
+    @Override
+    public void render(PuzzleLayout layout, Writer writer) throws IOException {
+        WordSearchGrid puzzle = layout.getPuzzle();
+        writer.write("<!DOCTYPE html>\n<html lang=\"");
+        writer.write(PuzzleLayout.escape(puzzle.getLanguage().toLowerCase(Locale.ROOT)));
+        writer.write("\">\n<head>\n<meta charset=\"utf-8\">\n<title>Word search</title>\n<style>");
+        writer.write(STYLE);
+        writer.write("</style>\n</head>\n<body>\n");
+
+        writeGrid(layout, writer, false);
+
+        writer.write("<ul class=\"words\">\n");
+        for (int w = 0; w < layout.getWordCount(); w++) {
+            writer.write("<li>");
+            writer.write(layout.getWordMarkup(w));
+            writer.write("</li>\n");
+        }
+        writer.write("</ul>\n");
+
+        if (puzzle.isShowHint()) {
+            writer.write("<h2>The solutions</h2>\n");
+            writeGrid(layout, writer, true);
+        }
+        writer.write("</body>\n</html>\n");
+    }
+
+    /**
+     * Writes the grid as a table, a row of the table for each row of the grid.
+     * @param solution True to highlight the cells covered by words.
+     */
+    private static void writeGrid(PuzzleLayout layout, Writer writer, boolean solution) throws IOException {
+        WordSearchGrid puzzle = layout.getPuzzle();
+        writer.write("<table class=\"grid\">\n");
+        for (int i = 0; i < puzzle.getHeight(); i++) {
+            writer.write("<tr>");
+            for (int j = 0; j < puzzle.getWidth(); j++) {
+                writer.write(solution && puzzle.isSolution(i, j) ? "<td class=\"found\">" : "<td>");
+                writer.write(layout.getCellMarkup(i, j));
+                writer.write("</td>");
+            }
+            writer.write("</tr>\n");
+        }
+        writer.write("</table>\n");
+    }
+
+    @Override
+    public String getExtension() {
+        return "html";
+    }
+}
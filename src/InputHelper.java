@@ -1,3 +1,8 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
 /**
  * The class whose instances define an input.
  */
@@ -10,42 +15,54 @@ public class InputHelper {
     /**
      * Constructor for an InputHelper, deriving an input definition from the given input array.
      * @param input String array of lines, derived from the input file.
+     * @throws PuzzleException If the input is not a valid input definition.
      */
     public InputHelper(String[] input) {
+        this(Arrays.copyOf(input, Math.min(input.length, 3)), Arrays.asList(input).subList(Math.min(input.length, 3), input.length).iterator());
+    }
+
+    /**
+     * Constructor for an InputHelper, deriving an input definition from the given settings lines and words, so that
+     * the words can be read lazily (see {@link StreamingFileInput}).
+     * @param header The first three lines of the input: the size, the language and whether the solution is shown.
+     * @param words  The words, one per line, read as they are iterated.
+     * @throws PuzzleException If the input is not a valid input definition.
+     */
+    public InputHelper(String[] header, Iterator<String> words) {
 
         //Errors below are self-explanatory.
 
-        if (input.length < 4){
-            Error.errorMessage("Invalid input file (Not enough arguments or no words at all)");
+        if (header.length < 3 || !words.hasNext()){
+            throw new PuzzleException("Invalid input file (Not enough arguments or no words at all)");
         }
 
-        String[] size = input[0].split("x");
+        String[] size = header[0].split("x");
         try {
             height = Integer.parseInt(size[0]);
             width = Integer.parseInt(size[1]);
         } catch (Exception e){
-            Error.errorMessage("Invalid input file (Invalid height and/or width values)");
+            throw new PuzzleException("Invalid input file (Invalid height and/or width values)");
         }
 
-        if (Alphabets.ALPHABETS.containsKey(input[1])){
-            language = input[1];
+        if (AlphabetRegistry.isSupported(header[1])){
+            language = header[1];
         } else {
-            Error.errorMessage("Invalid input file (Given language is not supported or does not exist at all)");
+            throw new PuzzleException("Invalid input file (Given language is not supported or does not exist at all)");
         }
 
-        if (input[2].equals("Yes")) {
+        if (header[2].equals("Yes")) {
             showHint = true;
-        } else if (input[2].equals("No")){
+        } else if (header[2].equals("No")){
             showHint = false;
         } else {
-            Error.errorMessage("Invalid input file (Invalid data for showing hints)");
+            throw new PuzzleException("Invalid input file (Invalid data for showing hints)");
         }
 
-        words = new String[input.length - 3];
-
-        for (int i = 3; i < input.length; i++) {
-            words[i - 3] = input[i];
+        List<String> wordList = new ArrayList<>();
+        while (words.hasNext()) {
+            wordList.add(words.next());
         }
+        this.words = wordList.toArray(new String[0]);
     }
 
     /**
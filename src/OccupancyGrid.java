@@ -0,0 +1,621 @@
+import java.util.Arrays;
+
+/**
+ * The class holding the shared occupancy state of a puzzle while its words are being placed. All the cells of the
+ * puzzle are kept in one primitive array, so a candidate placement is checked against the grid itself in O(word length)
+ * instead of being compared with every word that has already been placed.
+ *
+ * Next to the cells, the grid keeps a bitset of the empty cells and one bitset per placed letter, which lets
+ * {@link #candidates(String, PlacementList)} list all the fitting placements of a word with word-wide bit operations.
+ */
+public class OccupancyGrid {
+    /**
+     * Row steps of the rotation values, where the rotation is an integer between [0,7], increasing like the angle in
+     * polar coordinates (0 is towards right, 2 is upwards, 4 is towards left and 6 is downwards).
+     */
+    public static final int[] ROW_STEPS = {0, -1, -1, -1, 0, 1, 1, 1};
+
+    /**
+     * Column steps of the rotation values, in the same order as {@link #ROW_STEPS}.
+     */
+    public static final int[] COLUMN_STEPS = {1, 1, 0, -1, -1, -1, 0, 1};
+
+    /**
+     * The character value of a cell that no word has been placed on yet.
+     */
+    public static final char EMPTY = '\0';
+
+    private final int height, width;
+    private final char[] cells;
+
+    /**
+     * The amount of words covering each cell, so that removing a word only frees the cells no other word uses.
+     */
+    private final int[] usages;
+    private int filledCellCount;
+
+    /**
+     * Bitsets over the cells in row-major order: one of the empty cells and one for each letter in {@link #maskLetters}.
+     */
+    private final long[] emptyMask;
+    private char[] maskLetters = new char[0];
+    private long[][] letterMasks = new long[0][];
+
+    /**
+     * The difficulty the placements are to meet, or null if any placement fitting the letters is fine, with its limits
+     * for the puzzle being placed and how far the words placed so far are from them.
+     */
+    private DifficultyProfile difficulty;
+    private int maxReversed, maxDiagonal, maxPerQuadrant, reversedCount, diagonalCount;
+    private final int[] quadrantCounts = new int[4];
+
+    /**
+     * With a least distance between words, the amount of words within reach of each cell, i.e. less than the distance
+     * away, and the bitset of the cells no word is within reach of, the only ones a new word may cover; otherwise null.
+     */
+    private int[] nearUsages;
+    private long[] farMask;
+
+    /**
+     * The most cells a grid may have, so that a placement, its cell times 8 plus its rotation, fits an int.
+     */
+    public static final int MAX_CELLS = Integer.MAX_VALUE >>> 3;
+
+    /**
+     * Constructor for an empty occupancy grid.
+     *
+     * @param height Height of the grid, in characters.
+     * @param width  Width of the grid, in characters.
+     */
+    public OccupancyGrid(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.cells = new char[height * width];
+        this.usages = new int[height * width];
+        this.emptyMask = new long[(height * width + 63) >>> 6];
+        setRange(emptyMask, 0, height * width);
+    }
+
+    /**
+     * Removes all the words from the grid, keeping its arrays, so that it can be reused for another puzzle of the same
+     * size.
+     */
+    public void clear() {
+        Arrays.fill(cells, EMPTY);
+        Arrays.fill(usages, 0);
+        Arrays.fill(emptyMask, 0);
+        setRange(emptyMask, 0, height * width);
+        for (long[] letterMask : letterMasks) {
+            Arrays.fill(letterMask, 0);
+        }
+        filledCellCount = 0;
+        resetDifficulty();
+    }
+
+    /**
+     * Makes the placements found from now on meet the given difficulty: a rotation is only allowed while it weighs more
+     * than 0 and its limits of backward and diagonal words are not reached, a quadrant only takes middle letters of
+     * words while it has fewer than its limit, and a word is only placed at the least distance of the profile from the
+     * others. It is to be set while the grid is empty; {@link #clear()} keeps it.
+     *
+     * @param difficulty The difficulty, or null to allow every placement fitting the letters.
+     * @param wordCount  The amount of words of the puzzle, which the limits of the difficulty are shares of.
+     */
+    public void setDifficulty(DifficultyProfile difficulty, int wordCount) {
+        this.difficulty = difficulty;
+        if (difficulty != null) {
+            maxReversed = difficulty.getMaxReversed(wordCount);
+            maxDiagonal = difficulty.getMaxDiagonal(wordCount);
+            maxPerQuadrant = difficulty.getMaxPerQuadrant(wordCount);
+        }
+        if (difficulty == null || difficulty.getMinDistance() == 0) {
+            nearUsages = null;
+            farMask = null;
+        } else if (nearUsages == null) {
+            nearUsages = new int[cells.length];
+            farMask = new long[emptyMask.length];
+        }
+        resetDifficulty();
+    }
+
+    /**
+     * Forgets the words placed so far in the state of the difficulty.
+     */
+    private void resetDifficulty() {
+        reversedCount = 0;
+        diagonalCount = 0;
+        Arrays.fill(quadrantCounts, 0);
+        if (nearUsages != null) {
+            Arrays.fill(nearUsages, 0);
+            Arrays.fill(farMask, 0);
+            setRange(farMask, 0, cells.length);
+        }
+    }
+
+    /**
+     * @return The difficulty the placements meet, or null if there is none.
+     */
+    public DifficultyProfile getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Determines if the given word can be placed at the given origin with the given rotation, that is, if it stays
+     * within the grid, every cell it covers is either empty or already contains the same character, and it meets the
+     * difficulty of the grid, if there is one.
+     *
+     * @param word     The word, uppercased and without spaces.
+     * @param row      Row of the first letter of the word.
+     * @param column   Column of the first letter of the word.
+     * @param rotation The rotation value, an integer between [0,7].
+     * @return True if the placement is fit, otherwise false.
+     */
+    public boolean fits(String word, int row, int column, int rotation) {
+        int length = word.length();
+        int rowStep = ROW_STEPS[rotation], columnStep = COLUMN_STEPS[rotation];
+        if (!contains(row, column) || !contains(row + rowStep * (length - 1), column + columnStep * (length - 1))) {
+            return false;
+        }
+        int middle = (length - 1) / 2;
+        if (difficulty != null && (!isAllowed(rotation)
+                || quadrantCounts[quadrantOf(row + middle * rowStep, column + middle * columnStep)] >= maxPerQuadrant)) {
+            return false;
+        }
+
+        int index = row * width + column, step = rowStep * width + columnStep;
+        for (int k = 0; k < length; k++, index += step) {
+            char cell = cells[index];
+            if (farMask != null ? (farMask[index >>> 6] & 1L << index) == 0 : cell != EMPTY && cell != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the given word to the grid. The placement is expected to have been checked with
+     * {@link #fits(String, int, int, int)} beforehand.
+     *
+     * @param word     The word, uppercased and without spaces.
+     * @param row      Row of the first letter of the word.
+     * @param column   Column of the first letter of the word.
+     * @param rotation The rotation value, an integer between [0,7].
+     */
+    public void place(String word, int row, int column, int rotation) {
+        int index = row * width + column, step = ROW_STEPS[rotation] * width + COLUMN_STEPS[rotation];
+        for (int k = 0; k < word.length(); k++, index += step) {
+            if (cells[index] == EMPTY) {
+                filledCellCount++;
+                cells[index] = word.charAt(k);
+                emptyMask[index >>> 6] &= ~(1L << index);
+                letterMask(cells[index], true)[index >>> 6] |= 1L << index;
+            }
+            usages[index]++;
+        }
+        if (difficulty != null) {
+            countDifficulty(word.length(), row, column, rotation, 1);
+        }
+    }
+
+    /**
+     * Removes the given word from the grid, emptying only the cells that are not covered by any other word. The word is
+     * expected to have been placed with {@link #place(String, int, int, int)} at the same location beforehand.
+     *
+     * @param word     The word, uppercased and without spaces.
+     * @param row      Row of the first letter of the word.
+     * @param column   Column of the first letter of the word.
+     * @param rotation The rotation value, an integer between [0,7].
+     */
+    public void remove(String word, int row, int column, int rotation) {
+        int index = row * width + column, step = ROW_STEPS[rotation] * width + COLUMN_STEPS[rotation];
+        for (int k = 0; k < word.length(); k++, index += step) {
+            if (--usages[index] == 0) {
+                letterMask(cells[index], true)[index >>> 6] &= ~(1L << index);
+                emptyMask[index >>> 6] |= 1L << index;
+                cells[index] = EMPTY;
+                filledCellCount--;
+            }
+        }
+        if (difficulty != null) {
+            countDifficulty(word.length(), row, column, rotation, -1);
+        }
+    }
+
+    /**
+     * Adds the given placement to the state of the difficulty, or takes it out of it.
+     *
+     * @param change 1 if the word is placed, -1 if it is removed.
+     */
+    private void countDifficulty(int length, int row, int column, int rotation, int change) {
+        int rowStep = ROW_STEPS[rotation], columnStep = COLUMN_STEPS[rotation];
+        if (DifficultyProfile.isReversed(rotation)) {
+            reversedCount += change;
+        }
+        if (DifficultyProfile.isDiagonal(rotation)) {
+            diagonalCount += change;
+        }
+        quadrantCounts[quadrantOf(row + (length - 1) / 2 * rowStep, column + (length - 1) / 2 * columnStep)] += change;
+        if (nearUsages == null) {
+            return;
+        }
+
+        //Every cell less than the least distance away from a letter of the word is within its reach.
+        int reach = difficulty.getMinDistance() - 1;
+        for (int k = 0; k < length; k++) {
+            int letterRow = row + k * rowStep, letterColumn = column + k * columnStep;
+            for (int r = Math.max(0, letterRow - reach); r <= Math.min(height - 1, letterRow + reach); r++) {
+                for (int c = Math.max(0, letterColumn - reach); c <= Math.min(width - 1, letterColumn + reach); c++) {
+                    int index = r * width + c;
+                    nearUsages[index] += change;
+                    if (nearUsages[index] == 0) {
+                        farMask[index >>> 6] |= 1L << index;
+                    } else {
+                        farMask[index >>> 6] &= ~(1L << index);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return True if the difficulty allows one more word with the given rotation.
+     */
+    private boolean isAllowed(int rotation) {
+        return difficulty.getDirectionWeight(rotation) > 0
+                && (!DifficultyProfile.isReversed(rotation) || reversedCount < maxReversed)
+                && (!DifficultyProfile.isDiagonal(rotation) || diagonalCount < maxDiagonal);
+    }
+
+    /**
+     * @return The quadrant of the given cell: 0 for the top left one, 1 for the top right one, 2 for the bottom left one
+     *         and 3 for the bottom right one. With an odd size, the middle row or column belongs to the bottom or right.
+     */
+    private int quadrantOf(int row, int column) {
+        return (row >= height / 2 ? 2 : 0) + (column >= width / 2 ? 1 : 0);
+    }
+
+    /**
+     * Counts the cells of the given placement that are covered by words already, that is, the letters a word placed
+     * there would share with the others.
+     *
+     * @param placement The encoded placement.
+     * @param length    Length of the word.
+     * @return The amount of covered cells.
+     */
+    public int coveredCells(int placement, int length) {
+        int index = placement >>> 3, step = ROW_STEPS[rotationOf(placement)] * width + COLUMN_STEPS[rotationOf(placement)];
+        int count = 0;
+        for (int k = 0; k < length; k++, index += step) {
+            if (cells[index] != EMPTY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists every placement of the given word that fits the current grid, in the order of rotations and then of
+     * origins in row-major order, appending them to the given list as encoded placements.
+     *
+     * @param word       The word, uppercased and without spaces.
+     * @param placements The list the fitting placements are appended to.
+     * @return The amount of fitting placements appended.
+     */
+    public int candidates(String word, PlacementList placements) {
+        int count = 0;
+        for (int rotation = 0; rotation < 8; rotation++) {
+            count += candidates(word, rotation, placements);
+        }
+        return count;
+    }
+
+    /**
+     * Lists every placement of the given word with the given rotation that fits the current grid, in the order of
+     * origins in row-major order, appending them to the given list as encoded placements.
+     *
+     * @param word       The word, uppercased and without spaces.
+     * @param rotation   The rotation value, an integer between [0,7].
+     * @param placements The list the fitting placements are appended to.
+     * @return The amount of fitting placements appended.
+     */
+    public int candidates(String word, int rotation, PlacementList placements) {
+        long[] origins = new long[getMaskLength()];
+        int count = fittingOrigins(word, rotation, origins);
+        for (int i = 0; i < origins.length; i++) {
+            for (long bits = origins[i]; bits != 0; bits &= bits - 1) {
+                placements.add(((i << 6) + Long.numberOfTrailingZeros(bits)) * 8 + rotation);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the origins from which the given word fits the current grid with the given rotation, as a bitset over the
+     * cells in row-major order. As long as no word is placed or removed meanwhile, it can be called from several
+     * threads at once, each with its own bitset.
+     *
+     * Starting from the origins that keep the word within the grid, for every letter of the word the bitset is
+     * intersected with the cells that are empty or hold that letter, shifted back by the letter's offset from the
+     * origin. This costs O(word length * cells / 64). A difficulty only takes away from the starting origins, or, with
+     * a least distance, intersects with the cells far enough from the words instead, so it costs nothing more.
+     *
+     * @param word     The word, uppercased and without spaces.
+     * @param rotation The rotation value, an integer between [0,7].
+     * @param origins  The bitset the fitting origins are written to, at least {@link #getMaskLength()} long.
+     * @return The amount of fitting origins.
+     */
+    public int fittingOrigins(String word, int rotation, long[] origins) {
+        if (difficulty != null && !isAllowed(rotation)) {
+            Arrays.fill(origins, 0, emptyMask.length, 0L);
+            return 0;
+        }
+        if (!originMask(word.length(), rotation, origins)) {
+            return 0;
+        }
+        if (difficulty != null) {
+            excludeFullQuadrants(word.length(), rotation, origins);
+        }
+        int step = ROW_STEPS[rotation] * width + COLUMN_STEPS[rotation];
+        for (int k = 0; k < word.length(); k++) {
+            intersectShifted(origins, letterMask(word.charAt(k), false), k * step);
+        }
+
+        int count = 0;
+        for (int i = 0; i < emptyMask.length; i++) {
+            count += Long.bitCount(origins[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the cell of the n-th origin in the given bitset, counting in row-major order from 0.
+     *
+     * @param origins The bitset of origins, as written by {@link #fittingOrigins(String, int, long[])}.
+     * @param n       The index of the origin, less than the amount of origins in the bitset.
+     * @return The index of the origin's cell, row * width + column.
+     */
+    public static int nthOrigin(long[] origins, int n) {
+        int i = 0;
+        while (n >= Long.bitCount(origins[i])) {
+            n -= Long.bitCount(origins[i++]);
+        }
+        long bits = origins[i];
+        for (; n > 0; n--) {
+            bits &= bits - 1;
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Fills the given bitset with the origins from which a word of the given length stays within the grid.
+     *
+     * @return False if there is no such origin, otherwise true.
+     */
+    private boolean originMask(int length, int rotation, long[] origins) {
+        Arrays.fill(origins, 0, emptyMask.length, 0L);
+        int rowStep = ROW_STEPS[rotation], columnStep = COLUMN_STEPS[rotation];
+        int firstRow = lowestOrigin(rowStep, length), rowLimit = originLimit(rowStep, length, height);
+        int firstColumn = lowestOrigin(columnStep, length), columnLimit = originLimit(columnStep, length, width);
+        if (firstRow >= rowLimit || firstColumn >= columnLimit) {
+            return false;
+        }
+        for (int row = firstRow; row < rowLimit; row++) {
+            setRange(origins, row * width + firstColumn, row * width + columnLimit);
+        }
+        return true;
+    }
+
+    /**
+     * Clears the origins of the given bitset from which a word of the given length would have its middle letter in a
+     * quadrant that has reached its limit of words.
+     */
+    private void excludeFullQuadrants(int length, int rotation, long[] origins) {
+        int middleRow = (length - 1) / 2 * ROW_STEPS[rotation], middleColumn = (length - 1) / 2 * COLUMN_STEPS[rotation];
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            if (quadrantCounts[quadrant] < maxPerQuadrant) {
+                continue;
+            }
+            int firstRow = quadrant < 2 ? 0 : height / 2, rowLimit = quadrant < 2 ? height / 2 : height;
+            int firstColumn = (quadrant & 1) == 0 ? 0 : width / 2, columnLimit = (quadrant & 1) == 0 ? width / 2 : width;
+            int fromColumn = Math.max(0, firstColumn - middleColumn), toColumn = Math.min(width, columnLimit - middleColumn);
+            int fromRow = Math.max(0, firstRow - middleRow), toRow = Math.min(height, rowLimit - middleRow);
+            for (int row = fromRow; row < toRow && fromColumn < toColumn; row++) {
+                clearRange(origins, row * width + fromColumn, row * width + toColumn);
+            }
+        }
+    }
+
+    /**
+     * Sets the bits [from, to) of the given bitset, a whole long at a time.
+     */
+    private static void setRange(long[] mask, int from, int to) {
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        long firstBits = -1L << from, lastBits = -1L >>> -to;
+        if (first == last) {
+            mask[first] |= firstBits & lastBits;
+            return;
+        }
+        mask[first] |= firstBits;
+        for (int i = first + 1; i < last; i++) {
+            mask[i] = -1L;
+        }
+        mask[last] |= lastBits;
+    }
+
+    /**
+     * Clears the bits [from, to) of the given bitset, a whole long at a time.
+     */
+    private static void clearRange(long[] mask, int from, int to) {
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        long firstBits = -1L << from, lastBits = -1L >>> -to;
+        if (first == last) {
+            mask[first] &= ~(firstBits & lastBits);
+            return;
+        }
+        mask[first] &= ~firstBits;
+        for (int i = first + 1; i < last; i++) {
+            mask[i] = 0L;
+        }
+        mask[last] &= ~lastBits;
+    }
+
+    /**
+     * Keeps only the bits i of the target for which cell i + offset is empty or set in the given letter mask.
+     */
+    private void intersectShifted(long[] target, long[] letterMask, int offset) {
+        int wordOffset = offset >> 6, bitOffset = offset & 63;
+        for (int i = 0; i < emptyMask.length; i++) {
+            if (target[i] == 0) {
+                continue;
+            }
+            long low = allowedWord(letterMask, i + wordOffset), high = allowedWord(letterMask, i + wordOffset + 1);
+            target[i] &= bitOffset == 0 ? low : (low >>> bitOffset) | (high << (64 - bitOffset));
+        }
+    }
+
+    private long allowedWord(long[] letterMask, int i) {
+        if (i < 0 || i >= emptyMask.length) {
+            return 0L;
+        }
+        if (farMask != null) { //Words at a distance from each other never share a cell, whatever its letter.
+            return farMask[i];
+        }
+        return letterMask == null ? emptyMask[i] : emptyMask[i] | letterMask[i];
+    }
+
+    /**
+     * Returns the bitset of the cells holding the given letter.
+     *
+     * @param create If true, creates the bitset when the letter has none yet; else, returns null in that case.
+     */
+    private long[] letterMask(char letter, boolean create) {
+        for (int i = 0; i < maskLetters.length; i++) {
+            if (maskLetters[i] == letter) {
+                return letterMasks[i];
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        maskLetters = Arrays.copyOf(maskLetters, maskLetters.length + 1);
+        letterMasks = Arrays.copyOf(letterMasks, letterMasks.length + 1);
+        maskLetters[maskLetters.length - 1] = letter;
+        return letterMasks[letterMasks.length - 1] = new long[emptyMask.length];
+    }
+
+    /**
+     * Encodes the given placement as a single integer, (row * width + column) * 8 + rotation.
+     *
+     * @param row      Row of the first letter of the word.
+     * @param column   Column of the first letter of the word.
+     * @param rotation The rotation value, an integer between [0,7].
+     * @return The encoded placement.
+     */
+    public int encode(int row, int column, int rotation) {
+        return (row * width + column) * 8 + rotation;
+    }
+
+    /**
+     * @param placement The encoded placement.
+     * @return Row of the first letter of the word.
+     */
+    public int rowOf(int placement) {
+        return (placement >>> 3) / width;
+    }
+
+    /**
+     * @param placement The encoded placement.
+     * @return Column of the first letter of the word.
+     */
+    public int columnOf(int placement) {
+        return (placement >>> 3) % width;
+    }
+
+    /**
+     * @param placement The encoded placement.
+     * @return The rotation value of the word, an integer between [0,7].
+     */
+    public static int rotationOf(int placement) {
+        return placement & 7;
+    }
+
+    /**
+     * Returns the lowest origin value (row or column) a word can start from along an axis, so that it stays within the
+     * grid.
+     *
+     * @param step   The step of the rotation along the axis, one of -1, 0 and 1.
+     * @param length Length of the word.
+     * @return The lowest origin value, contained in the origin range.
+     */
+    public static int lowestOrigin(int step, int length) {
+        return step < 0 ? length - 1 : 0;
+    }
+
+    /**
+     * Returns the upper limit of the origin values (row or column) a word can start from along an axis, so that it
+     * stays within the grid.
+     *
+     * @param step   The step of the rotation along the axis, one of -1, 0 and 1.
+     * @param length Length of the word.
+     * @param size   Size of the grid along the axis, in characters.
+     * @return The upper limit of the origin values, not contained in the origin range.
+     */
+    public static int originLimit(int step, int length, int size) {
+        return step > 0 ? size - length + 1 : size;
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return True if the given location is within the grid, otherwise false.
+     */
+    public boolean contains(int row, int column) {
+        return row >= 0 && row < height && column >= 0 && column < width;
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return The character at the given cell, or {@link #EMPTY} if no word covers it.
+     */
+    public char get(int row, int column) {
+        return cells[row * width + column];
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return True if no word covers the given cell, otherwise false.
+     */
+    public boolean isEmpty(int row, int column) {
+        return cells[row * width + column] == EMPTY;
+    }
+
+    /**
+     * @return The height of the grid, in characters.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The width of the grid, in characters.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The amount of longs a bitset over the cells of this grid takes.
+     */
+    public int getMaskLength() {
+        return emptyMask.length;
+    }
+
+    /**
+     * @return The amount of cells covered by at least one word.
+     */
+    public int getFilledCellCount() {
+        return filledCellCount;
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+/**
+ * The class representing a growable list of placements, each encoded as a single integer by
+ * {@link OccupancyGrid#encode(int, int, int)}, so that listing the placements of a word does not box any values.
+ */
+public class PlacementList {
+    private int[] placements;
+    private int size;
+
+    /**
+     * The keys of a weighted shuffle, each with its placement, kept for the next one.
+     */
+    private long[] keyed = new long[0];
+
+    /**
+     * Constructor for an empty placement list.
+     */
+    public PlacementList() {
+        this.placements = new int[64];
+    }
+
+    /**
+     * Appends the given placement to the end of the list.
+     *
+     * @param placement The encoded placement.
+     */
+    public void add(int placement) {
+        if (size == placements.length) {
+            placements = Arrays.copyOf(placements, size * 2);
+        }
+        placements[size++] = placement;
+    }
+
+    /**
+     * @param index Index of the placement in the list.
+     * @return The encoded placement at the given index.
+     */
+    public int get(int index) {
+        return placements[index];
+    }
+
+    /**
+     * @return The amount of placements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if there are no placements in the list, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Shuffles the placements in the list uniformly.
+     *
+     * @param randomizer The random source of the shuffle.
+     */
+    public void shuffle(Randomizer randomizer) {
+        for (int i = size - 1; i > 0; i--) {
+            int j = randomizer.randomNumber(i + 1), placement = placements[i];
+            placements[i] = placements[j];
+            placements[j] = placement;
+        }
+    }
+
+    /**
+     * Shuffles the placements in the list so that each one comes first as often as the weight of its rotation in the
+     * given difficulty makes it, and so on for the ones after it: each placement is given the key -log(u) / weight, u
+     * being uniform in (0, 1), and the placements are sorted by their keys. A search trying the placements in this
+     * order therefore favours the directions the difficulty favours, as {@link CandidateFinder#pick} does.
+     *
+     * @param randomizer The random source of the shuffle.
+     * @param difficulty The difficulty weighing the rotations, or null to shuffle uniformly.
+     */
+    public void shuffle(Randomizer randomizer, DifficultyProfile difficulty) {
+        if (difficulty == null || difficulty.isUniform()) {
+            shuffle(randomizer);
+            return;
+        }
+        if (keyed.length < size) {
+            keyed = new long[placements.length];
+        }
+        for (int i = 0; i < size; i++) {
+            double u = (randomizer.randomNumber(Integer.MAX_VALUE) + 1.0) / (Integer.MAX_VALUE + 1.0);
+            float key = (float) (-Math.log(u) / difficulty.getDirectionWeight(OccupancyGrid.rotationOf(placements[i])));
+            //Keys are positive, so their bits sort as they do; a rotation weighing 0 gets an infinite key, the last one.
+            keyed[i] = (long) Float.floatToIntBits(key) << 32 | (placements[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keyed, 0, size);
+        for (int i = 0; i < size; i++) {
+            placements[i] = (int) keyed[i];
+        }
+    }
+
+    /**
+     * Removes all the placements from the list, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * The enum containing the ways words can be placed in a puzzle.
+ */
+public enum PlacementMode {
+    /**
+     * Places the words one by one, each at a placement picked uniformly among the ones fitting the grid at that moment.
+     */
+    RANDOM,
+
+    /**
+     * Searches the placements with backtracking, either finding a placement for all the words or proving that none
+     * exists, within the time budget of the generation.
+     */
+    BACKTRACKING,
+
+    /**
+     * Places the words so that they share as many letters as possible, with a beam search, shrinking the grid towards
+     * the target density of the generation within its time budget.
+     */
+    DENSE
+}
@@ -0,0 +1,252 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class defining the binary format of a puzzle archive, written by {@link PuzzleArchiveWriter} and read by
+ * {@link PuzzleArchiveReader}. All the numbers are big-endian.
+ *
+ * An archive starts with the magic bytes "WSPA", a format version (int) and the offset of its latest index segment
+ * (long), followed by the records of its puzzles and their index segments. Each writer writes its records one after
+ * another, then an index segment of them: the amount of its puzzles (int), the id of its first puzzle (int) and the
+ * offset of each of its records (long), so a puzzle can be read by its id, the position of its record, without reading
+ * the others; then a trailer holding the offset of the segment written before it (long, 0 for the first one), its own
+ * offset (long) and the magic bytes "WSPI". The index of the archive is the chain of its segments.
+ *
+ * The offset in the header is written last, once the segment is complete, and is 0 until the first one is. Puzzles
+ * added to an archive are written after its latest segment, followed by a segment of their own, so the archive keeps
+ * all its old puzzles readable until the new segment is complete, and adding puzzles only reads the latest segment and
+ * only grows the archive by the new records and their offsets.
+ *
+ * The record of a puzzle holds:
+ * - The alphabet id, the language of its {@link Alphabet} in the {@link AlphabetRegistry} (byte length, then its UTF-8
+ *   bytes).
+ * - Flags (byte), currently only whether the solution is shown (bit 0).
+ * - Height and width (int each).
+ * - The bits of a cell (byte). Up to 15, each cell is the index of its letter in the alphabet, packed bit after bit;
+ *   the 5 bits of the English and Turkish alphabets pack a 20x20 grid into 250 bytes. The indices are preceded by the
+ *   {@link Alphabet#getChecksum() checksum} of the alphabet (int), so that a record is not read with other letters than
+ *   it was written with, e.g. under an alphabet file overriding the shipped one. Cells with letters out of the alphabet
+ *   fall back to 16, each cell being its UTF-16 char.
+ * - The amount of words (int), then for each word its origin as row * width + column (int), its rotation (byte), its
+ *   amount of letters (varint) and its text as given (varint length, then its UTF-8 bytes). The letters themselves are
+ *   read from the cells, and the solution is the cells covered by the words.
+ *
+ * A varint is an unsigned int written 7 bits at a time, the lowest first, each byte but the last one having its highest
+ * bit set; so the lengths of usual words take a byte each, and no length is ever cut off.
+ */
+final class PuzzleArchive {
+    static final int MAGIC = 0x57535041; // "WSPA"
+    static final int INDEX_MAGIC = 0x57535049; // "WSPI"
+    static final int VERSION = 3;
+    static final int HEADER_BYTES = 16;
+    static final int INDEX_OFFSET_POSITION = 8;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    static final int TRAILER_BYTES = 20;
+
+    private static final int FLAG_SHOW_HINT = 1;
+    private static final int CHAR_BITS = 16;
+
+    private PuzzleArchive() {
+    }
+
+    /**
+     * Returns the record of the given puzzle.
+     * @param puzzle The puzzle to be encoded.
+     * @param buffer A buffer to encode the record in, or null.
+     * @return The given buffer or, if it is too small, a larger one, holding the record between 0 and its limit.
+     */
+    static ByteBuffer encode(WordSearchGrid puzzle, ByteBuffer buffer) {
+        int height = puzzle.getHeight(), width = puzzle.getWidth(), cellCount = height * width;
+        byte[] language = puzzle.getLanguage().getBytes(StandardCharsets.UTF_8);
+        if (language.length > 0xFF) {
+            throw new PuzzleException("Invalid puzzle (The language " + puzzle.getLanguage() + " is too long to be archived)");
+        }
+        Alphabet alphabet = AlphabetRegistry.get(puzzle.getLanguage());
+
+        //Cells are packed as indices into the alphabet if all of them are in it, else they are kept as chars.
+        int bits = alphabet == null || alphabet.size() > 1 << 15 ? CHAR_BITS : Math.max(1, 32 - Integer.numberOfLeadingZeros(alphabet.size() - 1));
+        int[] indices = new int[cellCount];
+        for (int i = 0, row = 0, column = 0; bits != CHAR_BITS && i < cellCount; i++) {
+            indices[i] = alphabet.indexOf(puzzle.getCell(row, column));
+            if (indices[i] < 0) {
+                bits = CHAR_BITS;
+            }
+            if (++column == width) {
+                column = 0;
+                row++;
+            }
+        }
+
+        List<byte[]> texts = new ArrayList<>();
+        int size = 1 + language.length + 1 + 4 + 4 + 1 + (bits == CHAR_BITS ? 0 : 4) + (int) (((long) cellCount * bits + 7) / 8) + 4;
+        for (Word word : puzzle.getWords()) {
+            byte[] text = word.getText().getBytes(StandardCharsets.UTF_8);
+            texts.add(text);
+            size += 4 + 1 + varintBytes(word.getLength()) + varintBytes(text.length) + text.length;
+        }
+
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer == null ? 0 : buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.put((byte) language.length).put(language);
+        buffer.put((byte) (puzzle.isShowHint() ? FLAG_SHOW_HINT : 0));
+        buffer.putInt(height).putInt(width);
+        buffer.put((byte) bits);
+        if (bits == CHAR_BITS) {
+            for (int i = 0; i < cellCount; i++) {
+                buffer.putChar(puzzle.getCell(i / width, i % width));
+            }
+        } else {
+            buffer.putInt(alphabet.getChecksum());
+            long pending = 0;
+            int pendingBits = 0;
+            for (int i = 0; i < cellCount; i++) {
+                pending = pending << bits | indices[i];
+                pendingBits += bits;
+                while (pendingBits >= 8) {
+                    pendingBits -= 8;
+                    buffer.put((byte) (pending >>> pendingBits));
+                }
+            }
+            if (pendingBits > 0) {
+                buffer.put((byte) (pending << (8 - pendingBits)));
+            }
+        }
+
+        buffer.putInt(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            Word word = puzzle.getWords().get(i);
+            buffer.putInt(word.getRow() * width + word.getColumn());
+            buffer.put((byte) word.getRotation());
+            putVarint(buffer, word.getLength());
+            putVarint(buffer, texts.get(i).length);
+            buffer.put(texts.get(i));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads the puzzle of the record between the position and the limit of the given buffer.
+     * @param record The record; its position is moved to its end.
+     * @return The puzzle.
+     * @throws PuzzleException If the record is not valid.
+     */
+    static WordSearchGrid decode(ByteBuffer record) {
+        try {
+            byte[] languageBytes = new byte[record.get() & 0xFF];
+            record.get(languageBytes);
+            String language = new String(languageBytes, StandardCharsets.UTF_8);
+            boolean showHint = (record.get() & FLAG_SHOW_HINT) != 0;
+            int height = record.getInt(), width = record.getInt();
+            int bits = record.get();
+            if (height <= 0 || width <= 0 || (long) height * width > Integer.MAX_VALUE || bits <= 0 || bits > CHAR_BITS) {
+                throw new PuzzleException("Invalid puzzle archive (Invalid grid of a record)");
+            }
+
+            char[] cells = new char[height * width];
+            if (bits == CHAR_BITS) {
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = record.getChar();
+                }
+            } else {
+                Alphabet alphabet = AlphabetRegistry.get(language);
+                if (alphabet == null) {
+                    throw new PuzzleException("Invalid puzzle archive (Unknown alphabet " + language + ")");
+                }
+                if (record.getInt() != alphabet.getChecksum()) {
+                    throw new PuzzleException("Invalid puzzle archive (The alphabet " + language + " has other letters than the puzzle was written with)");
+                }
+                long pending = 0;
+                int pendingBits = 0, mask = (1 << bits) - 1;
+                for (int i = 0; i < cells.length; i++) {
+                    while (pendingBits < bits) {
+                        pending = pending << 8 | (record.get() & 0xFF);
+                        pendingBits += 8;
+                    }
+                    pendingBits -= bits;
+                    int index = (int) (pending >>> pendingBits) & mask;
+                    if (index >= alphabet.size()) {
+                        throw new PuzzleException("Invalid puzzle archive (Letter out of the alphabet " + language + ")");
+                    }
+                    cells[i] = alphabet.letterAt(index);
+                }
+            }
+
+            int wordCount = record.getInt();
+            if (wordCount < 0 || wordCount > record.remaining()) {
+                throw new PuzzleException("Invalid puzzle archive (Invalid word table of a record)");
+            }
+            List<Word> words = new ArrayList<>(wordCount);
+            for (int i = 0; i < wordCount; i++) {
+                int origin = record.getInt(), rotation = record.get(), length = getVarint(record), textLength = getVarint(record);
+                if (textLength > record.remaining()) {
+                    throw new BufferUnderflowException();
+                }
+                byte[] text = new byte[textLength];
+                record.get(text);
+                if (origin < 0 || origin >= cells.length || rotation < 0 || rotation > 7) {
+                    throw new PuzzleException("Invalid puzzle archive (Invalid word table of a record)");
+                }
+                int row = origin / width, column = origin % width;
+                int lastRow = row + OccupancyGrid.ROW_STEPS[rotation] * (length - 1), lastColumn = column + OccupancyGrid.COLUMN_STEPS[rotation] * (length - 1);
+                if (length == 0 || lastRow < 0 || lastRow >= height || lastColumn < 0 || lastColumn >= width) {
+                    throw new PuzzleException("Invalid puzzle archive (A word of a record leaves its grid)");
+                }
+                char[] letters = new char[length];
+                for (int k = 0; k < length; k++) {
+                    letters[k] = cells[(row + OccupancyGrid.ROW_STEPS[rotation] * k) * width + column + OccupancyGrid.COLUMN_STEPS[rotation] * k];
+                }
+                words.add(new Word(new String(text, StandardCharsets.UTF_8), new String(letters), row, column, rotation, language));
+            }
+            return new WordSearchGrid(cells, height, width, words, language, showHint);
+        } catch (BufferUnderflowException e) {
+            throw new PuzzleException("Invalid puzzle archive (Truncated record)");
+        }
+    }
+
+    /**
+     * @return The amount of bytes the given value takes as a varint.
+     */
+    private static int varintBytes(int value) {
+        int bytes = 1;
+        while ((value >>>= 7) != 0) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the given value as a varint.
+     */
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a varint.
+     * @throws PuzzleException If it does not fit an int or is negative.
+     */
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte next = buffer.get();
+            if (shift == 28 && (next & 0xF8) != 0) { //Its fifth byte only has the 3 bits left of a non-negative int.
+                break;
+            }
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new PuzzleException("Invalid puzzle archive (Invalid length of a record)");
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The class reading the puzzles of an archive written by {@link PuzzleArchiveWriter}. The archive is memory-mapped and
+ * only its index segments are read when it is opened; a puzzle is decoded when it is asked for by its id, straight
+ * from the mapped bytes, so any puzzle of a large archive is read in about the same time. It is safe to be shared
+ * between threads.
+ */
+public class PuzzleArchiveReader implements AutoCloseable {
+
+    /**
+     * The largest part of an archive mapped at once. Records never span two parts.
+     */
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    /**
+     * The offset of each record and the offset right after it.
+     */
+    private final long[] offsets, ends;
+
+    /**
+     * The mapped parts of the archive, the offset each starts at, and the part of each record.
+     */
+    private final List<MappedByteBuffer> windows = new ArrayList<>();
+    private final List<Long> windowOffsets = new ArrayList<>();
+    private final int[] recordWindows;
+
+    /**
+     * Constructor for a PuzzleArchiveReader, opening the archive at the given path and reading its index.
+     * @param path Path to the archive.
+     * @throws PuzzleException If there is no such archive or it is not a valid archive.
+     */
+    public PuzzleArchiveReader(String path) {
+        try {
+            channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        } catch (IOException | RuntimeException e) {
+            throw new PuzzleException("Invalid puzzle archive (No such file exists)");
+        }
+        try {
+            //The segments are followed from the latest one back to the first one, each one ending before the next.
+            List<IndexSegment> segments = new ArrayList<>();
+            for (IndexSegment segment = readLatestSegment(channel); ; segment = readSegment(channel, segment.previous)) {
+                segments.add(segment);
+                if (segment.previous == 0) {
+                    break;
+                }
+            }
+            Collections.reverse(segments);
+
+            int count = 0;
+            for (IndexSegment segment : segments) {
+                count += segment.offsets.length;
+            }
+            offsets = new long[count];
+            ends = new long[count];
+            recordWindows = new int[count];
+            long previousEnd = PuzzleArchive.HEADER_BYTES;
+            int id = 0;
+            for (IndexSegment segment : segments) {
+                if (segment.firstId != id || segment.offset < previousEnd) {
+                    throw new PuzzleException("Invalid puzzle archive (Invalid index)");
+                }
+                for (int i = 0; i < segment.offsets.length; i++, id++) {
+                    offsets[id] = segment.offsets[i];
+                    ends[id] = i + 1 < segment.offsets.length ? segment.offsets[i + 1] : segment.offset;
+                    if (offsets[id] < previousEnd || offsets[id] > ends[id]) {
+                        throw new PuzzleException("Invalid puzzle archive (Invalid index)");
+                    }
+                    previousEnd = offsets[id];
+                }
+                previousEnd = segment.end;
+            }
+            mapRecords();
+        } catch (IOException e) {
+            close();
+            throw new PuzzleException("Invalid puzzle archive (" + e.getMessage() + ")");
+        } catch (PuzzleException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the header of the given archive and the index segment it points to, the one written last.
+     * @param channel The archive, open for reading.
+     * @return The latest index segment of the archive.
+     * @throws PuzzleException If the archive is not a valid archive or has not been closed since it was created.
+     */
+    static IndexSegment readLatestSegment(FileChannel channel) throws IOException {
+        if (channel.size() < PuzzleArchive.HEADER_BYTES + PuzzleArchive.SEGMENT_HEADER_BYTES + PuzzleArchive.TRAILER_BYTES) {
+            throw new PuzzleException("Invalid puzzle archive (Truncated file)");
+        }
+        ByteBuffer header = readAt(channel, 0, PuzzleArchive.HEADER_BYTES);
+        if (header.getInt() != PuzzleArchive.MAGIC || header.getInt() != PuzzleArchive.VERSION) {
+            throw new PuzzleException("Invalid puzzle archive (Unknown format or version)");
+        }
+        //Anything after the latest segment, e.g. the records of an append that never completed, is ignored.
+        long indexOffset = header.getLong();
+        if (indexOffset == 0) {
+            throw new PuzzleException("Invalid puzzle archive (Missing index, the archive may not have been closed)");
+        }
+        return readSegment(channel, indexOffset);
+    }
+
+    /**
+     * Reads the index segment at the given offset of the given archive.
+     * @throws PuzzleException If there is no valid segment at the offset.
+     */
+    private static IndexSegment readSegment(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (offset < PuzzleArchive.HEADER_BYTES || offset > size - PuzzleArchive.SEGMENT_HEADER_BYTES - PuzzleArchive.TRAILER_BYTES) {
+            throw new PuzzleException("Invalid puzzle archive (Invalid index)");
+        }
+        ByteBuffer segmentHeader = readAt(channel, offset, PuzzleArchive.SEGMENT_HEADER_BYTES);
+        int count = segmentHeader.getInt(), firstId = segmentHeader.getInt();
+        long end = offset + PuzzleArchive.SEGMENT_HEADER_BYTES + count * 8L + PuzzleArchive.TRAILER_BYTES;
+        if (count < 0 || count > (Integer.MAX_VALUE - PuzzleArchive.TRAILER_BYTES) / 8 || firstId < 0 || end > size) {
+            throw new PuzzleException("Invalid puzzle archive (Invalid index)");
+        }
+        ByteBuffer index = readAt(channel, offset + PuzzleArchive.SEGMENT_HEADER_BYTES, count * 8 + PuzzleArchive.TRAILER_BYTES);
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = index.getLong();
+        }
+        long previous = index.getLong();
+        if (index.getLong() != offset || index.getInt() != PuzzleArchive.INDEX_MAGIC
+                || (previous != 0 && (previous < PuzzleArchive.HEADER_BYTES || previous >= offset))) {
+            throw new PuzzleException("Invalid puzzle archive (Invalid index)");
+        }
+        return new IndexSegment(offset, end, previous, firstId, offsets);
+    }
+
+    /**
+     * Maps the records of the archive in as few parts as possible, starting a new part at the record that would make
+     * the current one larger than {@link #MAX_WINDOW_BYTES}.
+     */
+    private void mapRecords() throws IOException {
+        int first = 0;
+        while (first < offsets.length) {
+            int last = first;
+            while (last + 1 < offsets.length && recordEnd(last + 1) - offsets[first] <= MAX_WINDOW_BYTES) {
+                last++;
+            }
+            long start = offsets[first], length = recordEnd(last) - start;
+            if (length > Integer.MAX_VALUE) {
+                throw new PuzzleException("Invalid puzzle archive (A record is too large)");
+            }
+            windows.add(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            windowOffsets.add(start);
+            for (int i = first; i <= last; i++) {
+                recordWindows[i] = windows.size() - 1;
+            }
+            first = last + 1;
+        }
+    }
+
+    private long recordEnd(int id) {
+        return ends[id];
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, position + bytes.position()) < 0) {
+                throw new PuzzleException("Invalid puzzle archive (Truncated file)");
+            }
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * @return The amount of puzzles in the archive.
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Reads the puzzle with the given id.
+     * @param id The id of the puzzle, between 0 and {@link #size()}.
+     * @return The puzzle, as it was written.
+     * @throws PuzzleException If there is no puzzle with the given id or its record is not valid.
+     */
+    public WordSearchGrid read(int id) {
+        if (id < 0 || id >= offsets.length) {
+            throw new PuzzleException("Invalid puzzle id (" + id + ", the archive has " + offsets.length + " puzzles)");
+        }
+        //Each read works on a view of its own, so the mapped parts are never moved by concurrent reads.
+        ByteBuffer record = windows.get(recordWindows[id]).duplicate();
+        int start = (int) (offsets[id] - windowOffsets.get(recordWindows[id]));
+        record.limit(start + (int) (recordEnd(id) - offsets[id])).position(start);
+        return PuzzleArchive.decode(record);
+    }
+
+    /**
+     * Closes the archive. The puzzles already read stay valid.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) { //The archive has only been read, so nothing is lost.
+        }
+    }
+
+    /**
+     * The class whose instances are the index segment of the puzzles added to an archive by one writer.
+     */
+    static final class IndexSegment {
+        /**
+         * The offset of the segment, the offset right after its trailer, and the offset of the segment written before
+         * it, 0 if there is none.
+         */
+        final long offset, end, previous;
+
+        /**
+         * The id of the first puzzle of the segment.
+         */
+        final int firstId;
+
+        /**
+         * The offsets of the records of the puzzles of the segment.
+         */
+        final long[] offsets;
+
+        private IndexSegment(long offset, long end, long previous, int firstId, long[] offsets) {
+            this.offset = offset;
+            this.end = end;
+            this.previous = previous;
+            this.firstId = firstId;
+            this.offsets = offsets;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The class writing puzzles to an archive in the binary format of {@link PuzzleArchive}, each puzzle getting the next
+ * id, starting from 0. The index segment of the puzzles written is written when the writer is closed, so a new archive
+ * is only readable once its writer has been closed, and an archive added to only has its new puzzles readable then;
+ * its old ones stay readable all along, even if the writer is never closed.
+ */
+public class PuzzleArchiveWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private long[] offsets = new long[64];
+    private int count;
+    private long position;
+
+    /**
+     * The id of the first puzzle written by this writer, and the offset of the index segment written before its own;
+     * 0 for a new archive.
+     */
+    private int firstId;
+    private long previousSegment;
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor for a PuzzleArchiveWriter, opening the archive at the given path.
+     * @param path   Path to the archive.
+     * @param append Append status, true if wanted to add puzzles to the archive if it exists, false if wanted to create
+     *               the archive from zero.
+     * @throws PuzzleException If the archive cannot be opened, or is to be appended to but is not a valid archive.
+     */
+    public PuzzleArchiveWriter(String path, boolean append) {
+        Path file = Paths.get(path);
+        try {
+            if (append && Files.exists(file) && Files.size(file) > 0) {
+                //The new puzzles are written after the latest index segment, which stays the one read until closed.
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try {
+                    PuzzleArchiveReader.IndexSegment latest = PuzzleArchiveReader.readLatestSegment(channel);
+                    firstId = latest.firstId + latest.offsets.length;
+                    previousSegment = latest.offset;
+                    position = latest.end;
+                } catch (IOException | PuzzleException e) {
+                    channel.close();
+                    throw e;
+                }
+            } else {
+                channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                ByteBuffer header = ByteBuffer.allocate(PuzzleArchive.HEADER_BYTES);
+                header.putInt(PuzzleArchive.MAGIC).putInt(PuzzleArchive.VERSION).putLong(0).flip();
+                writeFully(header);
+            }
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid puzzle archive (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Writes the given puzzle as the next record of the archive.
+     * @param puzzle The puzzle to be written.
+     * @return The id of the puzzle in the archive.
+     * @throws PuzzleException If the archive cannot be written.
+     */
+    public int write(WordSearchGrid puzzle) {
+        buffer = PuzzleArchive.encode(puzzle, buffer);
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(64, count * 2));
+        }
+        offsets[count] = position;
+        try {
+            writeFully(buffer);
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid puzzle archive (" + e.getMessage() + ")");
+        }
+        return firstId + count++;
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    /**
+     * Writes the index segment of the puzzles written, then points the header of the archive to it, and closes it. An
+     * archive added no puzzles to is left as it was.
+     * @throws PuzzleException If the archive cannot be written.
+     */
+    @Override
+    public void close() {
+        try {
+            if (count == 0 && previousSegment != 0) {
+                return;
+            }
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(PuzzleArchive.SEGMENT_HEADER_BYTES + count * 8 + PuzzleArchive.TRAILER_BYTES);
+            index.putInt(count).putInt(firstId);
+            for (int i = 0; i < count; i++) {
+                index.putLong(offsets[i]);
+            }
+            index.putLong(previousSegment).putLong(indexOffset).putInt(PuzzleArchive.INDEX_MAGIC).flip();
+            writeFully(index);
+            //Whatever an earlier writer left after this point is dropped, and the index is on disk before it is used.
+            channel.truncate(position);
+            channel.force(false);
+            ByteBuffer pointer = ByteBuffer.allocate(8);
+            pointer.putLong(indexOffset).flip();
+            while (pointer.hasRemaining()) {
+                channel.write(pointer, PuzzleArchive.INDEX_OFFSET_POSITION + pointer.position());
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid puzzle archive (" + e.getMessage() + ")");
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException ignored) { //Any failure to write has been reported already.
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * The exception thrown when a puzzle cannot be generated, either because its input is invalid or because its words
+ * cannot be placed. The single puzzle runs report it with {@link Error#errorMessage(String)}, while batch runs report
+ * it for the failing job only.
+ */
+public class PuzzleException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for a PuzzleException.
+     * @param message   Error message describing why the puzzle cannot be generated.
+     */
+    public PuzzleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class representing where everything of a puzzle is drawn, shared by all the {@link PuzzleRenderer}s of the
+ * puzzle: the center of each cell, the segment each word is found along, from the center of its first letter to the
+ * center of its last one, the place of each listed word, and the words and cells escaped for markup. It is computed
+ * once per puzzle and cached by {@link WordSearchGrid#getLayout()}, so rendering a puzzle in several formats computes
+ * the layout once and then only writes out each format, in linear time.
+ *
+ * The coordinates are in millimeters, for a printed page: a cell is {@value #CELL} mm wide, the grid is surrounded by a
+ * margin of {@value #MARGIN} mm, and the words are listed below the grid, in columns of {@value #LIST_COLUMN} mm.
+ */
+public class PuzzleLayout {
+    /**
+     * The width and the height of a cell.
+     */
+    public static final int CELL = 10;
+
+    /**
+     * The margin around the grid and around the list of words.
+     */
+    public static final int MARGIN = 10;
+
+    /**
+     * The width of a column of the list of words, and the height of one of its lines.
+     */
+    public static final int LIST_COLUMN = 50, LIST_LINE = 7;
+
+    private final WordSearchGrid puzzle;
+    private final int[] columnXs, rowYs;
+    private final int[] segments;
+    private final int[] listXs, listYs;
+    private final int gridBottom, totalWidth, totalHeight;
+    private final String[] cellMarkups, wordMarkups;
+
+    /**
+     * Constructor for the layout of the given puzzle. Prefer {@link WordSearchGrid#getLayout()}, which computes it once.
+     * @param puzzle The puzzle to be laid out.
+     */
+    public PuzzleLayout(WordSearchGrid puzzle) {
+        this.puzzle = puzzle;
+        int height = puzzle.getHeight(), width = puzzle.getWidth();
+
+        columnXs = new int[width];
+        for (int j = 0; j < width; j++) {
+            columnXs[j] = MARGIN + j * CELL + CELL / 2;
+        }
+        rowYs = new int[height];
+        for (int i = 0; i < height; i++) {
+            rowYs[i] = MARGIN + i * CELL + CELL / 2;
+        }
+        gridBottom = MARGIN + height * CELL;
+
+        //Each distinct letter is escaped only once, the cells only refer to the escaped letters.
+        cellMarkups = new String[height * width];
+        char[] letters = new char[0];
+        String[] markups = new String[0];
+        for (int index = 0; index < cellMarkups.length; index++) {
+            char letter = puzzle.getCell(index / width, index % width);
+            int known = 0;
+            while (known < letters.length && letters[known] != letter) {
+                known++;
+            }
+            if (known == letters.length) {
+                letters = Arrays.copyOf(letters, known + 1);
+                markups = Arrays.copyOf(markups, known + 1);
+                letters[known] = letter;
+                markups[known] = escape(puzzle.spell(letter));
+            }
+            cellMarkups[index] = markups[known];
+        }
+
+        List<Word> words = puzzle.getWords();
+        segments = new int[words.size() * 4];
+        wordMarkups = new String[words.size()];
+        listXs = new int[words.size()];
+        listYs = new int[words.size()];
+        int listColumns = Math.max(1, (width * CELL) / LIST_COLUMN);
+        int listRows = (words.size() + listColumns - 1) / listColumns;
+        for (int w = 0; w < words.size(); w++) {
+            Word word = words.get(w);
+            int last = word.getLength() - 1;
+            segments[w * 4] = columnXs[word.getColumn()];
+            segments[w * 4 + 1] = rowYs[word.getRow()];
+            segments[w * 4 + 2] = columnXs[word.columnAt(last)];
+            segments[w * 4 + 3] = rowYs[word.rowAt(last)];
+            wordMarkups[w] = escape(word.getWord());
+            //The words are listed down the columns, each column filled before the next one.
+            listXs[w] = MARGIN + (w / listRows) * LIST_COLUMN;
+            listYs[w] = gridBottom + MARGIN + (w % listRows) * LIST_LINE + LIST_LINE / 2;
+        }
+        totalWidth = Math.max(2 * MARGIN + width * CELL, 2 * MARGIN + listColumns * LIST_COLUMN);
+        totalHeight = gridBottom + (listRows > 0 ? MARGIN + listRows * LIST_LINE : 0) + MARGIN;
+    }
+
+    /**
+     * Escapes the characters of the given text that have a meaning in HTML and XML.
+     * @param text The text to be escaped.
+     * @return The escaped text, the same instance if nothing is to be escaped.
+     */
+    public static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&#39;"; break;
+                default: replacement = null;
+            }
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(text.charAt(i));
+                }
+            }
+        }
+        return escaped == null ? text : escaped.toString();
+    }
+
+    /**
+     * Writes the given number, e.g. a coordinate, to the given writer without putting a String together.
+     * @param writer The writer to write the number to.
+     * @param number The number, not negative.
+     * @throws IOException If the writer fails.
+     */
+    static void writeNumber(Writer writer, int number) throws IOException {
+        if (number >= 10) {
+            writeNumber(writer, number / 10);
+        }
+        writer.write('0' + number % 10);
+    }
+
+    /**
+     * @return The puzzle laid out.
+     */
+    public WordSearchGrid getPuzzle() {
+        return puzzle;
+    }
+
+    /**
+     * @param column Column of a cell.
+     * @return The horizontal coordinate of the centers of the cells of the given column.
+     */
+    public int getCellX(int column) {
+        return columnXs[column];
+    }
+
+    /**
+     * @param row Row of a cell.
+     * @return The vertical coordinate of the centers of the cells of the given row.
+     */
+    public int getCellY(int row) {
+        return rowYs[row];
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return The character of the given cell, escaped for markup.
+     */
+    public String getCellMarkup(int row, int column) {
+        return cellMarkups[row * puzzle.getWidth() + column];
+    }
+
+    /**
+     * @return The amount of words of the puzzle.
+     */
+    public int getWordCount() {
+        return wordMarkups.length;
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The word as listed, escaped for markup.
+     */
+    public String getWordMarkup(int index) {
+        return wordMarkups[index];
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The horizontal coordinate of the center of the first letter of the word.
+     */
+    public int getStartX(int index) {
+        return segments[index * 4];
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The vertical coordinate of the center of the first letter of the word.
+     */
+    public int getStartY(int index) {
+        return segments[index * 4 + 1];
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The horizontal coordinate of the center of the last letter of the word.
+     */
+    public int getEndX(int index) {
+        return segments[index * 4 + 2];
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The vertical coordinate of the center of the last letter of the word.
+     */
+    public int getEndY(int index) {
+        return segments[index * 4 + 3];
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The horizontal coordinate of the start of the word in the list of words.
+     */
+    public int getListX(int index) {
+        return listXs[index];
+    }
+
+    /**
+     * @param index Index of the word in {@link WordSearchGrid#getWords()}.
+     * @return The vertical coordinate of the middle of the line of the word in the list of words.
+     */
+    public int getListY(int index) {
+        return listYs[index];
+    }
+
+    /**
+     * @return The vertical coordinate of the bottom edge of the grid.
+     */
+    public int getGridBottom() {
+        return gridBottom;
+    }
+
+    /**
+     * @return The width of the whole page, the grid and the list of words with their margins.
+     */
+    public int getTotalWidth() {
+        return totalWidth;
+    }
+
+    /**
+     * @return The height of the whole page, the grid and the list of words with their margins.
+     */
+    public int getTotalHeight() {
+        return totalHeight;
+    }
+}
@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The interface of the formats a puzzle can be written in. A renderer only writes out the {@link PuzzleLayout} of a
+ * puzzle, computed once and shared by all the formats, so it takes linear time in the cells and the words. Renderers
+ * hold no state, so one can be used by many threads at once.
+ */
+public interface PuzzleRenderer {
+    /**
+     * Writes the puzzle of the given layout to the given writer.
+     * @param layout The layout of the puzzle, from {@link WordSearchGrid#getLayout()}.
+     * @param writer The writer to write the puzzle to. It is neither flushed nor closed.
+     * @throws IOException If the writer fails.
+     */
+    void render(PuzzleLayout layout, Writer writer) throws IOException;
+
+    /**
+     * @return The extension of the files of this format, without the dot, e.g. "html".
+     */
+    String getExtension();
+
+    /**
+     * @return The charset the files of this format are encoded in, UTF-8 unless the format says otherwise.
+     */
+    default Charset getCharset() {
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Finds the renderer of the given format.
+     * @param format The name of the format: text, html, svg or highlight, in any case.
+     * @return The renderer, or null if there is no format with the given name.
+     */
+    static PuzzleRenderer forName(String format) {
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "text":
+                return new TextRenderer();
+            case "html":
+                return new HtmlRenderer();
+            case "svg":
+                return new SvgRenderer();
+            case "highlight":
+                return new HighlightRenderer();
+            default:
+                return null;
+        }
+    }
+}
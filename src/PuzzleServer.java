@@ -0,0 +1,223 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The class running the generator as a resident local HTTP server, so that a puzzle costs neither a JVM start nor a
+ * cold JIT. Puzzles are requested by POST /puzzle, with a body in the format of an input file (see
+ * {@link WordSearchGenerator#main(String[])}), and the rendered puzzle is the response. The generation settings of the
+ * server can be overridden for a request by the query parameters mode, density, timeout, seed, autosize and difficulty,
+ * e.g. /puzzle?seed=42.
+ *
+ * Responses are 200 with the puzzle as UTF-8 text, 400 with the error message if the puzzle cannot be generated or its
+ * grid, once enlarged for the longest word or sized automatically, is larger than {@value #MAX_PUZZLE_CELLS} cells, 404
+ * for other paths, 405 for other methods, and 503 if the puzzle is not generated within its time budget and
+ * {@value #RESPONSE_GRACE_MILLIS} ms more.
+ */
+public class PuzzleServer implements AutoCloseable {
+
+    /**
+     * The largest request body accepted, in bytes.
+     */
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * The most cells of the grid of a puzzle served.
+     */
+    private static final int MAX_PUZZLE_CELLS = 1000 * 1000;
+
+    /**
+     * The time, in milliseconds, a request waits for its puzzle beyond the time budget of its placement search, for
+     * the queueing, the filling and the rendering of the puzzle.
+     */
+    private static final long RESPONSE_GRACE_MILLIS = 5_000;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final RequestBatcher batcher;
+    private final GenerationSettings settings;
+
+    /**
+     * Constructor for a PuzzleServer, listening on the loopback address; the server starts taking requests once
+     * {@link #start()} is called.
+     * @param port          The port to listen on; 0 picks a free one.
+     * @param settings      The settings of how the puzzles are generated, unless a request overrides them.
+     * @param threadCount   The amount of threads generating puzzles.
+     * @throws IOException If the port cannot be listened on.
+     */
+    public PuzzleServer(int port, GenerationSettings settings, int threadCount) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        //Handler threads only parse requests and wait for their puzzles, so there may be more of them than workers.
+        this.handlers = Executors.newFixedThreadPool(Math.max(4, threadCount * 4));
+        this.batcher = new RequestBatcher(threadCount, 32, 200);
+        server.setExecutor(handlers);
+        server.createContext("/puzzle", this::handle);
+    }
+
+    /**
+     * Starts taking requests in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Handles a single request, answering it with a puzzle or with the reason it cannot be generated.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestURI().getPath().equals("/puzzle")) {
+                respond(exchange, 404, "Not found");
+            } else if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, "Puzzles are requested by POST");
+            } else {
+                GenerationSettings requestSettings = parseSettings(exchange.getRequestURI().getRawQuery());
+                InputHelper input = new InputHelper(FileInput.readText(readBody(exchange.getRequestBody()), true, true));
+                Future<String> puzzle = batcher.submit(input, requestSettings);
+                long budget = requestSettings.getTimeBudgetMillis();
+                try {
+                    respond(exchange, 200, puzzle.get(Math.max(budget, budget + RESPONSE_GRACE_MILLIS), TimeUnit.MILLISECONDS));
+                } catch (TimeoutException e) {
+                    puzzle.cancel(false);
+                    respond(exchange, 503, "ERROR: The puzzle was not generated in time");
+                }
+            }
+        } catch (PuzzleException e) {
+            respond(exchange, 400, "ERROR: " + e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PuzzleException) {
+                respond(exchange, 400, "ERROR: " + e.getCause().getMessage());
+            } else {
+                respond(exchange, 500, "ERROR: " + e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "ERROR: The server is shutting down");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Derives the settings of a request from the settings of the server and the given query.
+     * @param query The raw query of the request, or null if it has none.
+     * @return The settings of the request.
+     * @throws PuzzleException If the query has an invalid or unknown parameter.
+     */
+    private GenerationSettings parseSettings(String query) throws UnsupportedEncodingException {
+        //The size is checked on the grid the words need, which may be larger than the one asked for.
+        GenerationSettings requestSettings = settings.copy().setMaxCells(Math.min(settings.getMaxCells(), MAX_PUZZLE_CELLS));
+        if (query == null || query.isEmpty()) {
+            return requestSettings;
+        }
+
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            try {
+                name = URLDecoder.decode(name, "UTF-8");
+                value = URLDecoder.decode(value, "UTF-8");
+                switch (name) {
+                    case "mode":
+                        requestSettings.setPlacementMode(PlacementMode.valueOf(value.toUpperCase(Locale.ROOT)));
+                        break;
+                    case "density":
+                        double density = Double.parseDouble(value);
+                        if (!(density > 0 && density <= 1)) {
+                            throw new NumberFormatException();
+                        }
+                        requestSettings.setTargetDensity(density);
+                        break;
+                    case "timeout":
+                        long timeout = Long.parseLong(value);
+                        if (timeout <= 0) {
+                            throw new NumberFormatException();
+                        }
+                        requestSettings.setTimeBudgetMillis(timeout);
+                        break;
+                    case "seed":
+                        requestSettings.setSeed(Long.parseLong(value));
+                        break;
+                    case "difficulty":
+                        requestSettings.setDifficulty(DifficultyProfile.forName(value));
+                        if (requestSettings.getDifficulty() == null) {
+                            throw new IllegalArgumentException();
+                        }
+                        break;
+                    case "autosize":
+                        if (!value.equalsIgnoreCase("yes") && !value.equalsIgnoreCase("no")) {
+                            throw new IllegalArgumentException();
+                        }
+                        requestSettings.setAutoSize(value.equalsIgnoreCase("yes"));
+                        break;
+                    default:
+                        throw new PuzzleException("Unknown query parameter: " + name);
+                }
+            } catch (IllegalArgumentException e) { //Includes NumberFormatException and malformed escapes.
+                throw new PuzzleException("Invalid query parameter " + name + " (" + value + ")");
+            }
+        }
+        return requestSettings;
+    }
+
+    /**
+     * Reads the body of a request as UTF-8 text.
+     * @throws PuzzleException If the body is larger than {@link #MAX_BODY_BYTES}.
+     */
+    private static String readBody(InputStream body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = body.read(buffer)) != -1; ) {
+            if (bytes.size() + read > MAX_BODY_BYTES) {
+                throw new PuzzleException("Request body too large");
+            }
+            bytes.write(buffer, 0, read);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Stops taking requests, waiting a second at most for the ones being answered.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        batcher.close();
+        handlers.shutdown();
+    }
+}
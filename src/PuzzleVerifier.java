@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The class checking a generated puzzle before it is shipped: every listed word is to be found in its grid, with a
+ * {@link WordFinder}. A word found more than once is reported as ambiguous, which does not make the puzzle invalid.
+ * Puzzles are verified either as {@link WordSearchGrid} instances or as output files, parsed back from their text; if
+ * the text has its solution, every word is also to be found on the cells of the solution, as far as they can be told
+ * from the others by their case.
+ */
+public class PuzzleVerifier {
+
+    private PuzzleVerifier() {
+    }
+
+    /**
+     * Verifies the given puzzle, also checking that every word is found where the puzzle has placed it.
+     * @param name   The name of the puzzle, as shown in the report.
+     * @param puzzle The puzzle to be verified.
+     * @return The report of the puzzle.
+     */
+    public static Report verify(String name, WordSearchGrid puzzle) {
+        int height = puzzle.getHeight(), width = puzzle.getWidth();
+        char[] cells = new char[height * width];
+        BitSet solution = new BitSet(cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = puzzle.getCell(i / width, i % width);
+            if (puzzle.isSolution(i / width, i % width)) {
+                solution.set(i);
+            }
+        }
+        List<Word> words = puzzle.getWords();
+        String[] letters = new String[words.size()], texts = new String[words.size()];
+        int[] placements = new int[words.size()];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = words.get(i).getLetters();
+            texts[i] = words.get(i).getWord();
+            placements[i] = (words.get(i).getRow() * width + words.get(i).getColumn()) * 8 + words.get(i).getRotation();
+        }
+        return verify(name, cells, height, width, letters, texts, solution, placements);
+    }
+
+    /**
+     * Verifies the puzzle of the given output file, as written by {@link FileOutput#writeToFile(String, WordSearchGrid, boolean)}.
+     * @param path Path to the output file.
+     * @return The report of the puzzle.
+     * @throws PuzzleException If the file cannot be read or is not a puzzle.
+     */
+    public static Report verify(String path) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(path), Charset.defaultCharset()); //The charset output files are written with.
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid puzzle file (" + e.getMessage() + ")");
+        }
+
+        //The grid, then the words, each followed by an empty line, then optionally the solution after its heading.
+        int line = 0;
+        List<String[]> rows = new ArrayList<>();
+        for (; line < lines.size() && !lines.get(line).isEmpty(); line++) {
+            rows.add(lines.get(line).split(" "));
+        }
+        int height = rows.size(), width = height == 0 ? 0 : rows.get(0).length;
+        if (height == 0) {
+            throw new PuzzleException("Invalid puzzle file (No grid)");
+        }
+
+        /* The file does not tell its language, so the cells of more than one character are taken to be the letters of
+        more than one char of its alphabet, and given chars of their own in the same way (see Alphabet). */
+        Set<String> composites = new LinkedHashSet<>();
+        for (String[] row : rows) {
+            if (row.length != width) {
+                throw new PuzzleException("Invalid puzzle file (Rows of different lengths)");
+            }
+            for (String cell : row) {
+                if (cell.length() != 1) {
+                    composites.add(cell);
+                }
+            }
+        }
+        Alphabet alphabet = null;
+        if (!composites.isEmpty()) {
+            double[] weights = new double[composites.size()];
+            Arrays.fill(weights, 1);
+            alphabet = new Alphabet(path, composites.toArray(new String[0]), weights);
+        }
+        char[] cells = new char[height * width];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                String cell = rows.get(i)[j];
+                cells[i * width + j] = alphabet == null ? cell.charAt(0) : alphabet.encode(cell).charAt(0);
+            }
+        }
+
+        List<String> texts = new ArrayList<>();
+        for (line++; line < lines.size() && !lines.get(line).isEmpty(); line++) {
+            texts.add(lines.get(line));
+        }
+        String[] letters = new String[texts.size()];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = Word.discardSpaces(texts.get(i)); //Listed words are uppercased already.
+            if (alphabet != null) {
+                letters[i] = alphabet.encode(letters[i]);
+            }
+        }
+
+        /* A cell of the solution is one shown differently there, in lowercase. A letter without case, e.g. a digit,
+        looks the same either way, so its cell is taken to be on the solution wherever a word needs it. */
+        BitSet solution = null;
+        int solutionStart = line + 5;
+        if (solutionStart + height <= lines.size() && lines.get(line + 1).startsWith("---")) {
+            solution = new BitSet(cells.length);
+            for (int i = 0; i < height; i++) {
+                String[] solutionRow = lines.get(solutionStart + i).split(" ");
+                if (solutionRow.length != width) {
+                    throw new PuzzleException("Invalid puzzle file (Solution of a different size)");
+                }
+                for (int j = 0; j < width; j++) {
+                    String cell = rows.get(i)[j];
+                    if (!solutionRow[j].equals(cell) || cell.toLowerCase(Locale.ROOT).equals(cell.toUpperCase(Locale.ROOT))) {
+                        solution.set(i * width + j);
+                    }
+                }
+            }
+        }
+        return verify(path, cells, height, width, letters, texts.toArray(new String[0]), solution, null);
+    }
+
+    /**
+     * Verifies a puzzle given by its parts.
+     * @param solution   The cells of the solution, or null if they are not known.
+     * @param placements The encoded placement of each word, or null if they are not known.
+     */
+    private static Report verify(String name, char[] cells, int height, int width, String[] letters, String[] texts, BitSet solution, int[] placements) {
+        WordFinder finder = new WordFinder(letters);
+        List<Set<Long>> found = new ArrayList<>();
+        boolean[] onSolution = new boolean[letters.length], atPlacement = new boolean[letters.length];
+        for (int i = 0; i < letters.length; i++) {
+            found.add(new HashSet<>());
+        }
+
+        for (WordFinder.Occurrence occurrence : finder.findAll(cells, height, width)) {
+            int w = occurrence.getWord(), length = letters[w].length();
+            int rowStep = OccupancyGrid.ROW_STEPS[occurrence.getRotation()], columnStep = OccupancyGrid.COLUMN_STEPS[occurrence.getRotation()];
+            int first = occurrence.getRow() * width + occurrence.getColumn();
+            int last = (occurrence.getRow() + rowStep * (length - 1)) * width + occurrence.getColumn() + columnStep * (length - 1);
+            //An occurrence read backwards (e.g. of a palindrome) covers the same cells, so it is the same occurrence.
+            found.get(w).add(Math.min(first, last) * (long) cells.length + Math.max(first, last));
+
+            if (solution != null && !onSolution[w]) {
+                boolean covered = true;
+                for (int k = 0, index = first; k < length && covered; k++, index += rowStep * width + columnStep) {
+                    covered = solution.get(index);
+                }
+                onSolution[w] = covered;
+            }
+            if (placements != null && placements[w] == first * 8 + occurrence.getRotation()) {
+                atPlacement[w] = true;
+            }
+        }
+
+        List<String> missing = new ArrayList<>(), ambiguous = new ArrayList<>();
+        for (int w = 0; w < letters.length; w++) {
+            if (found.get(w).isEmpty() || (solution != null && !onSolution[w]) || (placements != null && !atPlacement[w])) {
+                missing.add(texts[w]);
+            } else if (found.get(w).size() > 1) {
+                ambiguous.add(texts[w]);
+            }
+        }
+        return new Report(name, null, missing, ambiguous);
+    }
+
+    /**
+     * Returns the report of a puzzle that cannot be verified at all.
+     * @param name   The name of the puzzle.
+     * @param reason The reason it cannot be verified, e.g. the error of reading it.
+     * @return The report of the puzzle, which is not valid.
+     */
+    public static Report unreadable(String name, String reason) {
+        return new Report(name, reason, new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * The class whose instances define the outcome of the verification of a puzzle.
+     */
+    public static class Report {
+        private final String name, failure;
+        private final List<String> missing, ambiguous;
+
+        private Report(String name, String failure, List<String> missing, List<String> ambiguous) {
+            this.name = name;
+            this.failure = failure;
+            this.missing = missing;
+            this.ambiguous = ambiguous;
+        }
+
+        /**
+         * @return The name of the puzzle.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return True if the puzzle has been read and every word has been found where it is expected.
+         */
+        public boolean isValid() {
+            return failure == null && missing.isEmpty();
+        }
+
+        /**
+         * @return The reason the puzzle cannot be verified at all, or null if it has been verified.
+         */
+        public String getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return The words not found, or not found where they are expected.
+         */
+        public List<String> getMissing() {
+            return missing;
+        }
+
+        /**
+         * @return The words found more than once.
+         */
+        public List<String> getAmbiguous() {
+            return ambiguous;
+        }
+    }
+}
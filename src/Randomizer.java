@@ -1,28 +1,25 @@
 /**
- * The abstract class containing randomizing methods.
+ * The interface of the random sources used in generating puzzles. A puzzle draws all its random values from the
+ * randomizer it is given, so generating it again with a randomizer seeded the same way gives the very same puzzle.
  */
-public abstract class Randomizer{
+public interface Randomizer {
     /**
-     * Returns a random integer in the bound [lower, upper).
+     * Returns a random integer in the bound [0, upper).
      *
-     * @param lower Lower integer bound, contained in the randomizing range.
      * @param upper Upper integer bound, not contained in the randomizing range.
-     * @return A random integer within the given bound.
+     * @return A random integer greater than or equal to 0 and less than the upper bound.
      */
-    public static int randomNumber(int lower, int upper){
-        double randomMultiplier = Math.random(); //In the range of [0.0, 1.0)
-        int randomNumber = (int)Math.floor((upper - lower) * randomMultiplier + lower);
-        return randomNumber;
-    }
+    int randomNumber(int upper);
 
     /**
-     * Returns a random integer in the bound [0, upper).
+     * Returns a random integer in the bound [lower, upper).
      *
+     * @param lower Lower integer bound, contained in the randomizing range.
      * @param upper Upper integer bound, not contained in the randomizing range.
-     * @return A random integer greater than or equal to 0 and less than the upper bound.
+     * @return A random integer within the given bound.
      */
-    public static int randomNumber(int upper){
-        return randomNumber(0, upper);
+    default int randomNumber(int lower, int upper) {
+        return lower + randomNumber(upper - lower);
     }
 
     /**
@@ -32,7 +29,24 @@ public abstract class Randomizer{
      * @return A random element inside the array.
      * @param <E> Element type of the array.
      */
-    public static <E> E randomElement(E[] array){
+    default <E> E randomElement(E[] array) {
         return array[randomNumber(array.length)];
     }
+
+    /**
+     * @return The randomizer drawing from the random generator of the calling thread, which is never shared between
+     *         threads, so it can be used from any amount of threads at once without contention.
+     */
+    static Randomizer threadLocal() {
+        return ThreadLocalRandomizer.INSTANCE;
+    }
+
+    /**
+     * @param seed The seed of the random values.
+     * @return A new randomizer giving the same sequence of random values for the same seed. It is not meant to be
+     *         shared between threads.
+     */
+    static Randomizer seeded(long seed) {
+        return new SeededRandomizer(seed);
+    }
 }
@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class running the puzzle requests of a {@link PuzzleServer} on a bounded pool of worker threads. Requests for
+ * small puzzles, which take less time to generate than to hand over to a worker, are gathered for a short moment and
+ * handed over together, a batch being generated one after another by a single worker. Requests for large puzzles are
+ * handed over on their own.
+ */
+public class RequestBatcher implements AutoCloseable {
+
+    /**
+     * Puzzles with at most this many cells are batched.
+     */
+    private static final int SMALL_PUZZLE_CELLS = 50 * 50;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private final GeneratorContext.PerThread contexts = new GeneratorContext.PerThread();
+    private final Thread dispatcher;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for a RequestBatcher, starting its threads.
+     * @param threadCount   The amount of worker threads.
+     * @param maxBatchSize  The most requests handed over to a worker at once.
+     * @param lingerMicros  The time, in microseconds, a batch waits for more requests before it is handed over.
+     */
+    public RequestBatcher(int threadCount, int maxBatchSize, long lingerMicros) {
+        this.workers = Executors.newFixedThreadPool(threadCount);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = lingerMicros * 1000;
+        this.dispatcher = new Thread(this::dispatch, "puzzle-request-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues the generation of the puzzle defined by the given input.
+     * @param input     Definition of the puzzle.
+     * @param settings  Settings of how the puzzle is generated, not to be changed afterwards.
+     * @return The future of the rendered puzzle, failing with a {@link PuzzleException} if it cannot be generated, or
+     *         with whatever else is thrown while generating it. Cancelling it before it is handed over to a worker
+     *         keeps it from being generated.
+     */
+    public CompletableFuture<String> submit(InputHelper input, GenerationSettings settings) {
+        Request request = new Request(input, settings);
+        if (closed) {
+            request.result.completeExceptionally(new PuzzleException("The server is shutting down"));
+        } else if ((long) input.getHeight() * input.getWidth() > SMALL_PUZZLE_CELLS) {
+            workers.execute(() -> request.run(contexts.get()));
+        } else {
+            queue.add(request);
+        }
+        return request.result;
+    }
+
+    /**
+     * The loop of the dispatcher thread, handing the queued requests over to the workers in batches.
+     */
+    private void dispatch() {
+        try {
+            while (!closed) {
+                List<Request> batch = new ArrayList<>(maxBatchSize);
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                workers.execute(() -> {
+                    GeneratorContext context = contexts.get();
+                    for (Request request : batch) {
+                        request.run(context);
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops taking requests, lets the workers finish the ones handed over and fails the ones still queued.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        workers.shutdown();
+        try { //The contexts are only closed once no worker uses them anymore.
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        contexts.close();
+        for (Request request; (request = queue.poll()) != null; ) {
+            request.result.completeExceptionally(new PuzzleException("The server is shutting down"));
+        }
+    }
+
+    /**
+     * The class whose instances define a queued puzzle request.
+     */
+    private static class Request {
+        private final InputHelper input;
+        private final GenerationSettings settings;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private Request(InputHelper input, GenerationSettings settings) {
+            this.input = input;
+            this.settings = settings;
+        }
+
+        private void run(GeneratorContext context) {
+            if (result.isDone()) { //Given up by the server while it was queued.
+                return;
+            }
+            try {
+                WordSearchGrid puzzle = new WordSearchGrid(input.getWords(), input.getHeight(), input.getWidth(), input.getLanguage(), input.isShowHint(), settings, context);
+                StringWriter output = new StringWriter();
+                puzzle.writeTo(output);
+                result.complete(output.toString());
+            } catch (IOException e) { //StringWriter does not throw IOException.
+                result.completeExceptionally(new UncheckedIOException(e));
+            } catch (Throwable e) { //Also an Error, e.g. OutOfMemoryError: the request fails, the worker and its batch go on.
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
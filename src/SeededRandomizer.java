@@ -0,0 +1,21 @@
+import java.util.SplittableRandom;
+
+/**
+ * The randomizer drawing from a {@link SplittableRandom} with a given seed, used to make puzzles reproducible.
+ */
+class SeededRandomizer implements Randomizer {
+    private final SplittableRandom random;
+
+    /**
+     * Constructor for a SeededRandomizer.
+     * @param seed The seed of the random values.
+     */
+    SeededRandomizer(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int randomNumber(int upper) {
+        return random.nextInt(upper);
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The class reading the lines of a file one at a time through a fixed-size buffer, so that a file of any size, like a
+ * dictionary of millions of words, is read without being held in memory. Lines are decoded as UTF-8 and split at the
+ * same line terminators as {@link FileInput#readFile(String, boolean, boolean)} does, and are cleaned the same way.
+ */
+public class StreamingFileInput implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String description;
+    private final FileChannel channel;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder();
+    private final boolean discardEmptyLines, trim;
+    private boolean endOfInput, decoded, skipLineFeed;
+
+    /**
+     * Constructor for a StreamingFileInput, opening the input file at the given path.
+     *
+     * @param path              Path to the file that is going to be read.
+     * @param discardEmptyLines If true, discards empty lines with respect to trim; else, it takes all the lines from the file.
+     * @param trim              Trim status; if true, trims (strip in Python) each line; else, it leaves each line as-is.
+     * @throws PuzzleException If there is not such a file or this program does not have sufficient permissions to read that file.
+     */
+    public StreamingFileInput(String path, boolean discardEmptyLines, boolean trim) {
+        this(path, "input file", discardEmptyLines, trim);
+    }
+
+    /**
+     * @param description What the file is, as shown in the error messages.
+     */
+    private StreamingFileInput(String path, String description, boolean discardEmptyLines, boolean trim) {
+        this.description = description;
+        this.discardEmptyLines = discardEmptyLines;
+        this.trim = trim;
+        try {
+            this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        } catch (IOException | RuntimeException e) { //Fails the puzzle if there is no such a file.
+            throw new PuzzleException("Invalid " + description + " (No such file exists)");
+        }
+        bytes.flip();
+        chars.flip();
+    }
+
+    /**
+     * Reads the input file at the given path: its first three lines as the settings of the puzzle and the lines after
+     * them as its words, without holding the lines in memory other than the words themselves.
+     *
+     * @param path Path to the input file.
+     * @return The input definition of the file.
+     * @throws PuzzleException If the file cannot be read or is not a valid input definition.
+     */
+    public static InputHelper readInput(String path) {
+        return readInput(path, new String[0]);
+    }
+
+    /**
+     * Reads the input file at the given path like {@link #readInput(String)} does, adding the given words after its
+     * own, e.g. the ones sampled from a dictionary with {@link #sample(String, int, Randomizer)}. The file may then
+     * have no words of its own.
+     *
+     * @param path       Path to the input file.
+     * @param extraWords The words to be added to the ones of the file.
+     * @return The input definition of the file.
+     * @throws PuzzleException If the file cannot be read or is not a valid input definition.
+     */
+    public static InputHelper readInput(String path, String[] extraWords) {
+        try (StreamingFileInput input = new StreamingFileInput(path, true, true)) {
+            String[] header = input.readHeader();
+            Iterator<String> fileWords = input.lines();
+            Iterator<String> extra = Arrays.asList(extraWords).iterator();
+            return new InputHelper(header, new Iterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return fileWords.hasNext() || extra.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return fileWords.hasNext() ? fileWords.next() : extra.next();
+                }
+            });
+        }
+    }
+
+    /**
+     * Picks the given amount of lines of the file at the given path at random, by reservoir sampling, so that every
+     * line is as likely to be picked while only the picked lines are held in memory. Empty lines are discarded and the
+     * lines are trimmed.
+     *
+     * @param path       Path to the file, e.g. a dictionary with a word on each line.
+     * @param count      The amount of lines to be picked.
+     * @param randomizer The random source of the picks.
+     * @return The picked lines in the order of the file, or all the lines if there are not more than the given amount.
+     * @throws PuzzleException If the file cannot be read.
+     */
+    public static String[] sample(String path, int count, Randomizer randomizer) {
+        //The reservoir grows with the lines read, so a count larger than the file only takes as much as the file.
+        String[] reservoir = new String[Math.min(count, 64)];
+        long[] positions = new long[reservoir.length];
+        int filled = 0;
+        try (StreamingFileInput input = new StreamingFileInput(path, "dictionary file", true, true)) {
+            long position = 0;
+            for (String line; (line = input.readLine()) != null; position++) {
+                if (filled < count) {
+                    if (filled == reservoir.length) {
+                        int capacity = (int) Math.min(count, reservoir.length * 2L);
+                        reservoir = Arrays.copyOf(reservoir, capacity);
+                        positions = Arrays.copyOf(positions, capacity);
+                    }
+                    reservoir[filled] = line;
+                    positions[filled++] = position;
+                } else {
+                    if (position >= Integer.MAX_VALUE) {
+                        throw new PuzzleException("Invalid dictionary file (Too many lines)");
+                    }
+                    int picked = randomizer.randomNumber((int) position + 1);
+                    if (picked < count) {
+                        reservoir[picked] = line;
+                        positions[picked] = position;
+                    }
+                }
+            }
+        }
+
+        //The picked lines are put back in the order of the file, so a seeded sample does not depend on the reservoir.
+        Integer[] order = new Integer[filled];
+        for (int i = 0; i < filled; i++) {
+            order[i] = i;
+        }
+        long[] linePositions = positions;
+        Arrays.sort(order, (a, b) -> Long.compare(linePositions[a], linePositions[b]));
+        String[] sample = new String[filled];
+        for (int i = 0; i < filled; i++) {
+            sample[i] = reservoir[order[i]];
+        }
+        return sample;
+    }
+
+    /**
+     * Reads all the lines of the file at the given path, e.g. a blocklist with a word on each line. Empty lines are
+     * discarded and the lines are trimmed.
+     *
+     * @param path        Path to the file.
+     * @param description What the file is, as shown in the error messages, e.g. "blocklist file".
+     * @return The lines in the order of the file.
+     * @throws PuzzleException If the file cannot be read.
+     */
+    public static String[] readLines(String path, String description) {
+        List<String> lines = new ArrayList<>();
+        try (StreamingFileInput input = new StreamingFileInput(path, description, true, true)) {
+            input.lines().forEachRemaining(lines::add);
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the three lines of the settings of a puzzle.
+     *
+     * @return The lines read, fewer than three if the file ends before.
+     */
+    public String[] readHeader() {
+        String[] header = new String[3];
+        int read = 0;
+        for (String line; read < header.length && (line = readLine()) != null; ) {
+            header[read++] = line;
+        }
+        return read == header.length ? header : Arrays.copyOf(header, read);
+    }
+
+    /**
+     * Reads the next line of the file.
+     *
+     * @return The line, cleaned as requested by the constructor, or null if the file has no lines left.
+     * @throws PuzzleException If the file cannot be read or is not valid UTF-8.
+     */
+    public String readLine() {
+        while (true) {
+            String next = readRawLine();
+            if (next == null) {
+                return null;
+            }
+            if (discardEmptyLines && next.trim().equals("")) { //Skips the lines that are empty with respect to trim.
+                continue;
+            }
+            return trim ? next.trim() : next;
+        }
+    }
+
+    /**
+     * @return An iterator reading the remaining lines of the file as they are iterated.
+     */
+    public Iterator<String> lines() {
+        return new Iterator<String>() {
+            private String next = readLine();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String current = next;
+                next = readLine();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Reads the characters up to the next line terminator, which is a line feed, a carriage return, or both.
+     */
+    private String readRawLine() {
+        while (true) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    String next = line.toString();
+                    line.setLength(0);
+                    return next;
+                }
+                line.append(c);
+            }
+            if (!fill()) {
+                //Text after the last terminator is a line too, but nothing after it is not.
+                if (line.length() == 0) {
+                    return null;
+                }
+                String next = line.toString();
+                line.setLength(0);
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Decodes the next characters of the file into the character buffer.
+     *
+     * @return False if the whole file has been decoded already.
+     */
+    private boolean fill() {
+        if (decoded) {
+            return false;
+        }
+        try {
+            chars.clear();
+            while (chars.position() == 0 && !decoded) {
+                if (!endOfInput) {
+                    bytes.compact();
+                    endOfInput = channel.read(bytes) < 0;
+                    bytes.flip();
+                }
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (endOfInput && !bytes.hasRemaining()) {
+                    decoder.flush(chars);
+                    decoded = true;
+                }
+            }
+            chars.flip();
+            return chars.hasRemaining();
+        } catch (CharacterCodingException e) {
+            throw new PuzzleException("Invalid " + description + " (Not encoded in UTF-8)");
+        } catch (IOException e) {
+            throw new PuzzleException("Invalid " + description + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) { //The file has only been read, so nothing is lost.
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The renderer writing a puzzle as an SVG image sized in millimeters, ready to be printed or converted to PDF as it is:
+ * the letters of the grid, each centered on its cell, and the words to find listed below the grid. The solution is
+ * drawn by {@link HighlightRenderer} as a separate image of the same size, to be laid over this one.
+ */
+public class SvgRenderer implements PuzzleRenderer {
+
+    @Override
+    public void render(PuzzleLayout layout, Writer writer) throws IOException {
+        WordSearchGrid puzzle = layout.getPuzzle();
+        writeHeader(layout, writer);
+        writer.write("<g font-family=\"monospace\" font-size=\"6\" text-anchor=\"middle\" dominant-baseline=\"central\">\n");
+        for (int i = 0; i < puzzle.getHeight(); i++) {
+            for (int j = 0; j < puzzle.getWidth(); j++) {
+                writer.write("<text x=\"");
+                PuzzleLayout.writeNumber(writer, layout.getCellX(j));
+                writer.write("\" y=\"");
+                PuzzleLayout.writeNumber(writer, layout.getCellY(i));
+                writer.write("\">");
+                writer.write(layout.getCellMarkup(i, j));
+                writer.write("</text>\n");
+            }
+        }
+        writer.write("</g>\n<g font-family=\"sans-serif\" font-size=\"4\" dominant-baseline=\"central\">\n");
+        for (int w = 0; w < layout.getWordCount(); w++) {
+            writer.write("<text x=\"");
+            PuzzleLayout.writeNumber(writer, layout.getListX(w));
+            writer.write("\" y=\"");
+            PuzzleLayout.writeNumber(writer, layout.getListY(w));
+            writer.write("\">");
+            writer.write(layout.getWordMarkup(w));
+            writer.write("</text>\n");
+        }
+        writer.write("</g>\n</svg>\n");
+    }
+
+    /**
+     * Writes the opening tag of an SVG image of the whole page of the given layout, one unit being a millimeter.
+     */
+    static void writeHeader(PuzzleLayout layout, Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"");
+        PuzzleLayout.writeNumber(writer, layout.getTotalWidth());
+        writer.write("mm\" height=\"");
+        PuzzleLayout.writeNumber(writer, layout.getTotalHeight());
+        writer.write("mm\" viewBox=\"0 0 ");
+        PuzzleLayout.writeNumber(writer, layout.getTotalWidth());
+        writer.write(' ');
+        PuzzleLayout.writeNumber(writer, layout.getTotalHeight());
+        writer.write("\">\n");
+    }
+
+    @Override
+    public String getExtension() {
+        return "svg";
+    }
+}
@@ -0,0 +1,27 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * The renderer writing a puzzle as plain text, the same text as {@link WordSearchGrid#toString()}: the rows of the
+ * grid, the words to find, and the solution in lowercase letters if it is to be shown.
+ */
+public class TextRenderer implements PuzzleRenderer {
+    @Override
+    public void render(PuzzleLayout layout, Writer writer) throws IOException {
+        layout.getPuzzle().writeTo(writer);
+    }
+
+    @Override
+    public String getExtension() {
+        return "txt";
+    }
+
+    /**
+     * @return The default charset, as the text has always been written in.
+     */
+    @Override
+    public Charset getCharset() {
+        return Charset.defaultCharset();
+    }
+}
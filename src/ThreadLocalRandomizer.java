@@ -0,0 +1,17 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The randomizer drawing from {@link ThreadLocalRandom}, the default random source of the puzzles. It has a single
+ * instance, {@link Randomizer#threadLocal()}.
+ */
+class ThreadLocalRandomizer implements Randomizer {
+    static final ThreadLocalRandomizer INSTANCE = new ThreadLocalRandomizer();
+
+    private ThreadLocalRandomizer() {
+    }
+
+    @Override
+    public int randomNumber(int upper) {
+        return ThreadLocalRandom.current().nextInt(upper);
+    }
+}
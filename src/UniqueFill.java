@@ -0,0 +1,142 @@
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * The fill stage making sure the random letters around the placed words spell no word other than at its placement:
+ * neither a placed word a second time nor a word of a blocklist. The letters are drawn as usual, then every occurrence
+ * of a word covering at least one of them is broken by drawing one of its filler letters again, and only the lines
+ * through that cell are searched again, with a {@link WordFinder}. So a puzzle is never generated again as a whole, and
+ * a puzzle with nothing to break keeps the very letters the random fill gave it.
+ *
+ * Occurrences made of placed letters only, like the placements themselves or a word spelled across two others, cannot
+ * be changed by the fill and are left as they are.
+ */
+final class UniqueFill {
+
+    private UniqueFill() {
+    }
+
+    /**
+     * Breaks every occurrence of the words of the given finder covering a filler cell of the given grid.
+     * @param cells      The characters of the cells in row-major order, uppercase; the filler ones are changed.
+     * @param placed     The cells covered by the placed words, which are never changed.
+     * @param height     Height of the grid, in characters.
+     * @param width      Width of the grid, in characters.
+     * @param finder     The finder of the words not to be spelled by the filler cells.
+     * @param alphabet   The letters the filler cells are drawn from.
+     * @param sampler    The sampler of the indices of the letters, as the filler cells have been drawn with.
+     * @param randomizer The random source of the letters drawn again.
+     * @return The amount of letters drawn again.
+     * @throws PuzzleException If the occurrences cannot be broken, e.g. if the alphabet is a blocked word itself.
+     */
+    static int repair(char[] cells, BitSet placed, int height, int width, WordFinder finder, Alphabet alphabet, AliasSampler sampler, Randomizer randomizer) {
+        return repair(cells, placed, height, width, finder, finder.findAll(cells, height, width), alphabet, sampler, randomizer, null);
+    }
+
+    /**
+     * Breaks the given occurrences covering a filler cell, and the ones the letters drawn again spell, leaving the rest
+     * of the grid as it is, e.g. after only a few of its cells have changed.
+     * @param cells      The characters of the cells in row-major order, uppercase; the filler ones are changed.
+     * @param placed     The cells covered by the placed words, which are never changed.
+     * @param height     Height of the grid, in characters.
+     * @param width      Width of the grid, in characters.
+     * @param finder     The finder of the words not to be spelled by the filler cells.
+     * @param suspects   The occurrences of the words of the finder that may have to be broken.
+     * @param alphabet   The letters the filler cells are drawn from.
+     * @param sampler    The sampler of the indices of the letters, as the filler cells have been drawn with.
+     * @param randomizer The random source of the letters drawn again.
+     * @param redrawn    Told the index of each cell about to be drawn again, or null.
+     * @return The amount of letters drawn again.
+     * @throws PuzzleException If the occurrences cannot be broken, e.g. if the alphabet is a blocked word itself.
+     */
+    static int repair(char[] cells, BitSet placed, int height, int width, WordFinder finder, List<WordFinder.Occurrence> suspects, Alphabet alphabet, AliasSampler sampler, Randomizer randomizer, IntConsumer redrawn) {
+        ArrayDeque<WordFinder.Occurrence> pending = new ArrayDeque<>();
+        for (WordFinder.Occurrence occurrence : suspects) {
+            if (fillerCount(occurrence, placed, width, finder) > 0) {
+                pending.add(occurrence);
+            }
+        }
+
+        //Every draw breaks an occurrence; a draw can spell new ones, but far fewer than there are cells.
+        int draws = 0, drawLimit = 16 * cells.length + 64;
+        while (!pending.isEmpty()) {
+            WordFinder.Occurrence occurrence = pending.poll();
+            if (!isSpelled(occurrence, cells, width, finder)) { //Broken already by a draw for another occurrence.
+                continue;
+            }
+            if (++draws > drawLimit || alphabet.size() < 2) {
+                throw new PuzzleException("No fill without repeated or blocked words (the alphabet keeps spelling " + finder.getWord(occurrence.getWord()) + ")");
+            }
+
+            int cell = fillerCell(occurrence, placed, width, finder, randomizer.randomNumber(fillerCount(occurrence, placed, width, finder)));
+            if (redrawn != null) {
+                redrawn.accept(cell);
+            }
+            cells[cell] = redraw(cells[cell], alphabet, sampler, randomizer);
+            for (WordFinder.Occurrence spelled : finder.findAcross(cells, height, width, cell / width, cell % width)) {
+                if (fillerCount(spelled, placed, width, finder) > 0) {
+                    pending.add(spelled);
+                }
+            }
+        }
+        return draws;
+    }
+
+    /**
+     * @return The amount of cells of the occurrence not covered by the placed words.
+     */
+    private static int fillerCount(WordFinder.Occurrence occurrence, BitSet placed, int width, WordFinder finder) {
+        int count = 0;
+        int step = OccupancyGrid.ROW_STEPS[occurrence.getRotation()] * width + OccupancyGrid.COLUMN_STEPS[occurrence.getRotation()];
+        for (int k = 0, index = occurrence.getRow() * width + occurrence.getColumn(); k < finder.getWord(occurrence.getWord()).length(); k++, index += step) {
+            if (!placed.get(index)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The index of the nth cell of the occurrence not covered by the placed words.
+     */
+    private static int fillerCell(WordFinder.Occurrence occurrence, BitSet placed, int width, WordFinder finder, int n) {
+        int step = OccupancyGrid.ROW_STEPS[occurrence.getRotation()] * width + OccupancyGrid.COLUMN_STEPS[occurrence.getRotation()];
+        for (int index = occurrence.getRow() * width + occurrence.getColumn(); ; index += step) {
+            if (!placed.get(index) && n-- == 0) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * @return True if the cells of the occurrence still spell its word.
+     */
+    private static boolean isSpelled(WordFinder.Occurrence occurrence, char[] cells, int width, WordFinder finder) {
+        String word = finder.getWord(occurrence.getWord());
+        int step = OccupancyGrid.ROW_STEPS[occurrence.getRotation()] * width + OccupancyGrid.COLUMN_STEPS[occurrence.getRotation()];
+        for (int k = 0, index = occurrence.getRow() * width + occurrence.getColumn(); k < word.length(); k++, index += step) {
+            if (cells[index] != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A letter of the alphabet other than the given one, the others as likely as the sampler makes them.
+     */
+    private static char redraw(char letter, Alphabet alphabet, AliasSampler sampler, Randomizer randomizer) {
+        int current = alphabet.indexOf(letter);
+        if (!sampler.isUniform()) {
+            int index;
+            do { //Every letter has a positive weight, so another one comes up soon.
+                index = sampler.sample(randomizer);
+            } while (index == current);
+            return alphabet.letterAt(index);
+        }
+        int index = randomizer.randomNumber(current < 0 ? alphabet.size() : alphabet.size() - 1);
+        return alphabet.letterAt(current >= 0 && index >= current ? index + 1 : index);
+    }
+}
@@ -1,110 +1,63 @@
-import java.util.*;
+import java.text.Normalizer;
+import java.util.Locale;
 
 /**
- * The instance class containing a word, its array representation, its map representation where keys are locations in
- * 2D array, its origin and its language.
+ * The instance class containing a word, the letters it is placed with, its origin, its rotation and its language. The
+ * placement is kept as (origin, rotation, length) only; the locations of the letters are computed from it when needed.
  */
 public class Word {
     private final String word, wordWithSpaces, lang;
-    private Integer[] origin;
+    private final int row, column, rotation;
 
     /**
-     * Key is {@link Integer}[] with length 2, representing the array location of the character and value is {@link String} containing
-     * the character in that location.
+     * Constructor for a Word object placed at the given origin with the given rotation.
+     *
+     * @param word     The word as a simple string.
+     * @param row      Row of the first letter of the word.
+     * @param column   Column of the first letter of the word.
+     * @param rotation The rotation value, an integer between [0,7], increasing like the angle in polar coordinates.
+     * @param lang     The language representative synonym String, to use in lowercase/uppercase operations.
      */
-    private HashMap<Integer[], String> mapRepresentation;
+    public Word(String word, int row, int column, int rotation, String lang) {
+        this(word, normalize(word, lang), row, column, rotation, lang);
+    }
 
     /**
-     * Constructor for a Word object. It creates different instance types for different rotations.
+     * Constructor for a Word object with a random origin that keeps the word within the puzzle.
+     *
+     * @param word       The word as a simple string.
+     * @param letters    The word uppercased and without spaces.
+     * @param rotation   The rotation value, an integer between [0,7], increasing like the angle in polar coordinates.
+     * @param height     The height value of the puzzle, in characters, to determine origin.
+     * @param width      The width value of the puzzle, in characters, to determine origin.
+     * @param lang       The language representative synonym String, to use in lowercase/uppercase operations.
+     * @param randomizer The random source of the origin.
+     */
+    private Word(String word, String letters, int rotation, int height, int width, String lang, Randomizer randomizer) {
+        this(word, letters,
+                randomOrigin(OccupancyGrid.ROW_STEPS[rotation], letters.length(), height, randomizer),
+                randomOrigin(OccupancyGrid.COLUMN_STEPS[rotation], letters.length(), width, randomizer),
+                rotation, lang);
+    }
+
+    /**
+     * Constructor for a Word object placed at the given origin with the given rotation, whose letters have already
+     * been normalized with {@link #normalize(String, String)}.
      *
      * @param word     The word as a simple string.
+     * @param letters  The word uppercased and without spaces.
+     * @param row      Row of the first letter of the word.
+     * @param column   Column of the first letter of the word.
      * @param rotation The rotation value, an integer between [0,7], increasing like the angle in polar coordinates.
-     * @param height   The height value of the puzzle, in characters, to determine origin.
-     * @param width    The width value of the puzzle, in characters, to determine origin.
      * @param lang     The language representative synonym String, to use in lowercase/uppercase operations.
      */
-    private Word(String word, int rotation, int height, int width, String lang) {
+    public Word(String word, String letters, int row, int column, int rotation, String lang) {
         this.lang = lang;
         this.wordWithSpaces = word;
-        this.word = discardSpaces(word.toUpperCase(new Locale(this.lang)));
-        this.mapRepresentation = new HashMap<>();
-
-        /*
-         Below switch statement basically does these things based on different rotation values:
-         1- Determine the origin (i.e. the location of the first letter of the word)
-         2- Loop through the rectangular area that this word occupies, starting from the word's first letter,
-            place the characters to their appropriate locations by putting them into the mapRepresentation.
-         */
-        switch (rotation) {
-            case 0:
-                this.origin = new Integer[]{Randomizer.randomNumber(height), Randomizer.randomNumber(width - this.word.length() + 1)};
-                for (int j = 0; j < this.word.length(); j++) {
-                    mapRepresentation.put(new Integer[]{origin[0], origin[1] + j}, Character.toString(this.word.charAt(j)));
-                }
-                break;
-            case 1:
-                this.origin = new Integer[]{Randomizer.randomNumber(this.word.length() - 1, height), Randomizer.randomNumber(width - this.word.length() + 1)};
-                for (int i = this.word.length() - 1; i >= 0; i--) {
-                    for (int j = 0; j < this.word.length(); j++) {
-                        if (i == this.word.length() - j - 1) {
-                            mapRepresentation.put(new Integer[]{origin[0] - this.word.length() + i + 1, origin[1] + j}, Character.toString(this.word.charAt(j)));
-                        }
-                    }
-                }
-                break;
-            case 2:
-                this.origin = new Integer[]{Randomizer.randomNumber(this.word.length() - 1, height), Randomizer.randomNumber(width)};
-                for (int i = this.word.length() - 1; i >= 0; i--) {
-                    mapRepresentation.put(new Integer[]{origin[0] - this.word.length() + i + 1, origin[1]}, Character.toString(this.word.charAt(this.word.length() - i - 1)));
-                }
-                break;
-            case 3:
-                this.origin = new Integer[]{Randomizer.randomNumber(this.word.length() - 1, height), Randomizer.randomNumber(this.word.length() - 1, width)};
-                for (int i = this.word.length() - 1; i >= 0; i--) {
-                    for (int j = this.word.length() - 1; j >= 0; j--) {
-                        if (i == j) {
-                            mapRepresentation.put(new Integer[]{origin[0] - this.word.length() + i + 1, origin[1] - this.word.length() + j + 1}, Character.toString(this.word.charAt(this.word.length() - i - 1)));
-                        }
-                    }
-                }
-                break;
-            case 4:
-                this.origin = new Integer[]{Randomizer.randomNumber(height), Randomizer.randomNumber(this.word.length() - 1, width)};
-                for (int j = this.word.length() - 1; j >= 0; j--) {
-                    mapRepresentation.put(new Integer[]{origin[0], origin[1] - this.word.length() + j + 1}, Character.toString(this.word.charAt(this.word.length() - j - 1)));
-                }
-                break;
-            case 5:
-                this.origin = new Integer[]{Randomizer.randomNumber(height - this.word.length() + 1), Randomizer.randomNumber(this.word.length() - 1, width)};
-                for (int i = 0; i < this.word.length(); i++) {
-                    for (int j = this.word.length() - 1; j >= 0; j--) {
-                        if (i == this.word.length() - j - 1) {
-                            mapRepresentation.put(new Integer[]{origin[0] + i, origin[1] - this.word.length() + j + 1}, Character.toString(this.word.charAt(this.word.length() - j - 1)));
-                        }
-                    }
-                }
-                break;
-            case 6:
-                this.origin = new Integer[]{Randomizer.randomNumber(height - this.word.length() + 1), Randomizer.randomNumber(width)};
-                for (int i = 0; i < this.word.length(); i++) {
-                    mapRepresentation.put(new Integer[]{origin[0] + i, origin[1]}, Character.toString(this.word.charAt(i)));
-                }
-                break;
-            case 7:
-                this.origin = new Integer[]{Randomizer.randomNumber(height - this.word.length() + 1), Randomizer.randomNumber(width - this.word.length() + 1)};
-                for (int i = 0; i < this.word.length(); i++) {
-                    for (int j = 0; j < this.word.length(); j++) {
-                        if (i == j) {
-                            mapRepresentation.put(new Integer[]{origin[0] + i, origin[1] + j}, Character.toString(this.word.charAt(j)));
-                        }
-                    }
-                }
-                break;
-            default:
-                //The code is not supposed to get here, since a rotation value must be given.
-                System.out.println("An error has occured while running the program. Exiting...");
-                System.exit(0);
-        }
+        this.word = letters;
+        this.row = row;
+        this.column = column;
+        this.rotation = rotation;
     }
 
     /**
@@ -116,7 +69,34 @@ public class Word {
      * @param lang   The language representative synonym String, to use in lowercase/uppercase operations.
      */
     public Word(String word, int height, int width, String lang) {
-        this(word, Randomizer.randomNumber(8), height, width, lang);
+        this(word, height, width, lang, Randomizer.threadLocal());
+    }
+
+    /**
+     * Creates a Word instance with given parameters, randomizing the rotation value with the given random source.
+     *
+     * @param word       The word as a simple string.
+     * @param height     The height value of the puzzle, in characters, to determine origin.
+     * @param width      The width value of the puzzle, in characters, to determine origin.
+     * @param lang       The language representative synonym String, to use in lowercase/uppercase operations.
+     * @param randomizer The random source of the rotation and the origin.
+     */
+    public Word(String word, int height, int width, String lang, Randomizer randomizer) {
+        this(word, normalize(word, lang), randomizer.randomNumber(8), height, width, lang, randomizer);
+    }
+
+    /**
+     * Returns a random origin value (row or column) along an axis, so that a word of the given length stays within
+     * the puzzle.
+     *
+     * @param step       The step of the rotation along the axis, one of -1, 0 and 1.
+     * @param length     Length of the word, without spaces.
+     * @param size       Size of the puzzle along the axis, in characters.
+     * @param randomizer The random source of the origin.
+     * @return A random origin value within the fitting range.
+     */
+    public static int randomOrigin(int step, int length, int size, Randomizer randomizer) {
+        return randomizer.randomNumber(OccupancyGrid.lowestOrigin(step, length), OccupancyGrid.originLimit(step, length, size));
     }
 
     /**
@@ -127,18 +107,49 @@ public class Word {
      * @return If the two words are not overlapping or overlapping correctly, then true, otherwise false.
      */
     public boolean overlappable(Word otherWord) {
-        for (Integer[] filledCoords : this.mapRepresentation.keySet()) {
-            for (Integer[] otherFilledCoords : otherWord.mapRepresentation.keySet()) {
-                if (Arrays.equals(filledCoords, otherFilledCoords)) {
-                    if (!this.mapRepresentation.get(filledCoords).equals(otherWord.mapRepresentation.get(otherFilledCoords))) {
-                        return false;
-                    }
-                }
+        for (int k = 0; k < word.length(); k++) {
+            int otherIndex = otherWord.indexOf(rowAt(k), columnAt(k));
+            if (otherIndex >= 0 && otherWord.word.charAt(otherIndex) != word.charAt(k)) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Finds the letter of this word at the given location, in O(1).
+     *
+     * @param row    Row of the location.
+     * @param column Column of the location.
+     * @return The index of the letter at the given location in {@link #getLetters()}, or -1 if this word does not
+     *         cover the location.
+     */
+    public int indexOf(int row, int column) {
+        int rowStep = OccupancyGrid.ROW_STEPS[rotation], columnStep = OccupancyGrid.COLUMN_STEPS[rotation];
+        int rowIndex = (row - this.row) * rowStep, columnIndex = (column - this.column) * columnStep;
+        if (rowStep == 0 ? row != this.row : columnStep == 0 ? column != this.column : rowIndex != columnIndex) {
+            return -1;
+        }
+        int index = rowStep == 0 ? columnIndex : rowIndex;
+        return index >= 0 && index < word.length() ? index : -1;
+    }
+
+    /**
+     * @param index Index of a letter in {@link #getLetters()}.
+     * @return Row of the letter.
+     */
+    public int rowAt(int index) {
+        return row + OccupancyGrid.ROW_STEPS[rotation] * index;
+    }
+
+    /**
+     * @param index Index of a letter in {@link #getLetters()}.
+     * @return Column of the letter.
+     */
+    public int columnAt(int index) {
+        return column + OccupancyGrid.COLUMN_STEPS[rotation] * index;
+    }
+
     /**
      * Returns the length of the longest world in a given String array.
      *
@@ -156,10 +167,54 @@ public class Word {
     }
 
     /**
-     * @return Map representation of this word, Integer[2] location as keys and String character as values.
+     * Uppercases the given word with respect to the given language and removes all the spaces from it, giving the
+     * characters that are placed in the puzzle. The word is composed to NFC first, so that a letter typed as several
+     * code points is placed as the single letter of the alphabet, and a letter of the alphabet of more than one char
+     * is then replaced by its char (see {@link Alphabet#encode(String)}).
+     *
+     * @param word The word as a simple string.
+     * @param lang The language representative synonym String, to use in uppercase operations.
+     * @return The uppercased word without spaces.
+     */
+    public static String normalize(String word, String lang) {
+        String letters = discardSpaces(Normalizer.normalize(word, Normalizer.Form.NFC).toUpperCase(new Locale(lang)));
+        Alphabet alphabet = AlphabetRegistry.get(lang);
+        return alphabet == null ? letters : alphabet.encode(letters);
+    }
+
+    /**
+     * @return The word as placed in the puzzle, uppercased and without spaces.
+     */
+    public String getLetters() {
+        return word;
+    }
+
+    /**
+     * @return Row of the origin of this word (i.e. the location of its first letter).
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return Column of the origin of this word (i.e. the location of its first letter).
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return The amount of letters of this word, without spaces.
      */
-    public HashMap<Integer[], String> getMapRepresentation() {
-        return mapRepresentation;
+    public int getLength() {
+        return word.length();
+    }
+
+    /**
+     * @return The rotation value of this word, an integer between [0,7].
+     */
+    public int getRotation() {
+        return rotation;
     }
 
     /**
@@ -177,10 +232,17 @@ public class Word {
         return stringBuilder.toString();
     }
 
+    /**
+     * @return The word as it has been given, with spaces and without changing its case.
+     */
+    public String getText() {
+        return wordWithSpaces;
+    }
+
     /**
      * @return The word as a simple string, with spaces.
      */
     public String getWord() {
-        return this.wordWithSpaces.toUpperCase(new Locale(this.lang));
+        return Normalizer.normalize(this.wordWithSpaces, Normalizer.Form.NFC).toUpperCase(new Locale(this.lang));
     }
 }
@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class finding every occurrence of a set of words in a grid, in all the eight rotations a {@link Word} can be
+ * placed with. The words are compiled once into an Aho-Corasick automaton, and every line of the grid is run through it
+ * once per rotation, so a search costs O(cells * 8 + occurrences) no matter how many words there are. A finder does not
+ * change once it is built, so it can be used by many threads at once.
+ */
+public class WordFinder {
+    private final String[] words;
+
+    /**
+     * The chars of the words mapped to dense symbols; chars not in any word map to -1.
+     */
+    private final int[] symbols;
+    private final int symbolCount;
+
+    /**
+     * The automaton: the next state of each state and symbol, with the failure links already followed, and for each
+     * state the words ending at it, including the ones reached through failure links.
+     */
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    /**
+     * Constructor for a WordFinder of the given words.
+     * @param words The words to be found, uppercased and without spaces, as placed in a grid; empty words are never
+     *              found.
+     */
+    public WordFinder(String[] words) {
+        this.words = words.clone();
+
+        char maxChar = 0;
+        for (String word : words) {
+            for (int k = 0; k < word.length(); k++) {
+                maxChar = (char) Math.max(maxChar, word.charAt(k));
+            }
+        }
+        symbols = new int[maxChar + 1];
+        Arrays.fill(symbols, -1);
+        int symbolTotal = 0;
+        for (String word : words) {
+            for (int k = 0; k < word.length(); k++) {
+                if (symbols[word.charAt(k)] < 0) {
+                    symbols[word.charAt(k)] = symbolTotal++;
+                }
+            }
+        }
+        symbolCount = Math.max(1, symbolTotal);
+
+        //The trie of the words, with -1 for the missing edges.
+        int stateLimit = 1;
+        for (String word : words) {
+            stateLimit += word.length();
+        }
+        int[] trie = new int[stateLimit * symbolCount];
+        Arrays.fill(trie, -1);
+        //The words ending at each state, as linked lists through the word indices, last added first.
+        int[] firstEnds = new int[stateLimit], nextEnds = new int[words.length], endCounts = new int[stateLimit];
+        Arrays.fill(firstEnds, -1);
+        int stateCount = 1;
+        for (int w = 0; w < words.length; w++) {
+            if (words[w].isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int k = 0; k < words[w].length(); k++) {
+                int edge = state * symbolCount + symbols[words[w].charAt(k)];
+                if (trie[edge] < 0) {
+                    trie[edge] = stateCount++;
+                }
+                state = trie[edge];
+            }
+            nextEnds[w] = firstEnds[state];
+            firstEnds[state] = w;
+            endCounts[state]++;
+        }
+
+        //Breadth-first, each state's failure link is set before the states below it need it.
+        transitions = Arrays.copyOf(trie, stateCount * symbolCount);
+        outputs = new int[stateCount][];
+        int[] failures = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0, tail = 0;
+        outputs[0] = new int[0];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int next = transitions[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                failures[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int[] inherited = outputs[failures[state]];
+            int[] stateOutputs = endCounts[state] == 0 ? inherited : Arrays.copyOf(inherited, inherited.length + endCounts[state]);
+            for (int i = stateOutputs.length - 1, w = firstEnds[state]; w >= 0; i--, w = nextEnds[w]) {
+                stateOutputs[i] = w;
+            }
+            outputs[state] = stateOutputs;
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int edge = state * symbolCount + symbol;
+                int next = transitions[edge];
+                int fallback = transitions[failures[state] * symbolCount + symbol];
+                if (next < 0) {
+                    transitions[edge] = fallback;
+                } else {
+                    failures[next] = fallback;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds every occurrence of the words in the given puzzle.
+     * @param puzzle The puzzle to search.
+     * @return The occurrences, by rotation, then by line, then by position along the line.
+     */
+    public List<Occurrence> findAll(WordSearchGrid puzzle) {
+        char[] cells = new char[puzzle.getHeight() * puzzle.getWidth()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = puzzle.getCell(i / puzzle.getWidth(), i % puzzle.getWidth());
+        }
+        return findAll(cells, puzzle.getHeight(), puzzle.getWidth());
+    }
+
+    /**
+     * Finds every occurrence of the words in the given grid.
+     * @param cells  The characters of the cells in row-major order, uppercase.
+     * @param height Height of the grid, in characters.
+     * @param width  Width of the grid, in characters.
+     * @return The occurrences, by rotation, then by line, then by position along the line.
+     */
+    public List<Occurrence> findAll(char[] cells, int height, int width) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (int rotation = 0; rotation < 8; rotation++) {
+            int rowStep = OccupancyGrid.ROW_STEPS[rotation], columnStep = OccupancyGrid.COLUMN_STEPS[rotation];
+            //A line starts at every cell whose previous cell in the rotation is out of the grid.
+            for (int row = 0; row < height; row++) {
+                for (int column = 0; column < width; column++) {
+                    int previousRow = row - rowStep, previousColumn = column - columnStep;
+                    if (previousRow >= 0 && previousRow < height && previousColumn >= 0 && previousColumn < width) {
+                        continue;
+                    }
+                    scanLine(cells, height, width, row, column, rotation, occurrences);
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Finds every occurrence of the words covering the given cell, running only the lines through it, so that a grid
+     * can be checked again after a single cell has changed in O(the sides of the grid).
+     * @param cells  The characters of the cells in row-major order, uppercase.
+     * @param height Height of the grid, in characters.
+     * @param width  Width of the grid, in characters.
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return The occurrences, by rotation, then by position along the line.
+     */
+    public List<Occurrence> findAcross(char[] cells, int height, int width, int row, int column) {
+        List<Occurrence> line = new ArrayList<>(), across = new ArrayList<>();
+        for (int rotation = 0; rotation < 8; rotation++) {
+            int rowStep = OccupancyGrid.ROW_STEPS[rotation], columnStep = OccupancyGrid.COLUMN_STEPS[rotation];
+            int back = 0;
+            for (int r = row - rowStep, c = column - columnStep; r >= 0 && r < height && c >= 0 && c < width; r -= rowStep, c -= columnStep) {
+                back++;
+            }
+            int startRow = row - rowStep * back, startColumn = column - columnStep * back;
+            line.clear();
+            scanLine(cells, height, width, startRow, startColumn, rotation, line);
+            for (Occurrence occurrence : line) {
+                //The cell is the back-th of the line, so it is covered by the occurrences starting up to a word before.
+                int first = Math.max(Math.abs(occurrence.row - startRow), Math.abs(occurrence.column - startColumn));
+                if (first <= back && back < first + words[occurrence.word].length()) {
+                    across.add(occurrence);
+                }
+            }
+        }
+        return across;
+    }
+
+    /**
+     * Runs the line starting at the given cell, in the given rotation, through the automaton.
+     */
+    private void scanLine(char[] cells, int height, int width, int row, int column, int rotation, List<Occurrence> occurrences) {
+        int rowStep = OccupancyGrid.ROW_STEPS[rotation], columnStep = OccupancyGrid.COLUMN_STEPS[rotation];
+        int state = 0;
+        for (int r = row, c = column; r >= 0 && r < height && c >= 0 && c < width; r += rowStep, c += columnStep) {
+            char cell = cells[r * width + c];
+            int symbol = cell < symbols.length ? symbols[cell] : -1;
+            state = symbol < 0 ? 0 : transitions[state * symbolCount + symbol];
+            for (int word : outputs[state]) {
+                int back = words[word].length() - 1;
+                occurrences.add(new Occurrence(word, r - rowStep * back, c - columnStep * back, rotation));
+            }
+        }
+    }
+
+    /**
+     * @return The entries of the tables of the automaton, the bulk of the memory the finder holds: a transition for
+     *         each state and symbol, a symbol for each char up to the largest one, and the outputs of each state.
+     */
+    public long getTableSize() {
+        return (long) transitions.length + symbols.length + outputs.length;
+    }
+
+    /**
+     * @return The words this finder finds, in the order of their indices.
+     */
+    public String[] getWords() {
+        return words.clone();
+    }
+
+    /**
+     * @param word Index of a word among the words of this finder.
+     * @return The word.
+     */
+    public String getWord(int word) {
+        return words[word];
+    }
+
+    /**
+     * The class whose instances define an occurrence of a word in a grid.
+     */
+    public static class Occurrence {
+        private final int word, row, column, rotation;
+
+        private Occurrence(int word, int row, int column, int rotation) {
+            this.word = word;
+            this.row = row;
+            this.column = column;
+            this.rotation = rotation;
+        }
+
+        /**
+         * @return Index of the word among the words of the finder.
+         */
+        public int getWord() {
+            return word;
+        }
+
+        /**
+         * @return Row of the first letter of the occurrence.
+         */
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * @return Column of the first letter of the occurrence.
+         */
+        public int getColumn() {
+            return column;
+        }
+
+        /**
+         * @return The rotation value of the occurrence, an integer between [0,7].
+         */
+        public int getRotation() {
+            return rotation;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class caching the normalized forms of word lists, so that a themed list used for thousands of puzzles is
+ * uppercased, stripped of its spaces and measured only once. Lists are keyed by their language and their content: a
+ * list with the same words in the same order is a hit even if it is another array, e.g. read again from its file.
+ *
+ * The cache is bounded by the total weight of the lists it holds, the letters of a list plus the table entries of the
+ * finder kept with it (see {@link WordFinder#getTableSize()}), and evicts the least recently used lists first when that
+ * bound is exceeded, also when a finder built for a cached list makes it heavier. It is safe to be shared between
+ * threads.
+ */
+public class WordListCache {
+
+    /**
+     * The cache shared by the generations that are not given one of their own.
+     */
+    private static final WordListCache SHARED = new WordListCache(1 << 20);
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, WordList> lists = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight, hits, misses, evictions;
+
+    /**
+     * Constructor for an empty cache.
+     * @param maxWeight The most weight, over all the lists, the cache holds at once: a letter of a list or an entry of
+     *                  the tables of its finder weighs 1. A list heavier than this is normalized but not cached.
+     */
+    public WordListCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return The cache shared by the generations that are not given one of their own, holding a weight of a million.
+     */
+    public static WordListCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the normalized form of the given word list, normalizing it only if it is not cached yet.
+     * @param words     The words as given.
+     * @param language  The language representative synonym String.
+     * @return The normalized word list.
+     */
+    public WordList get(String[] words, String language) {
+        Key key = new Key(words, language);
+        synchronized (this) {
+            WordList list = lists.get(key);
+            if (list != null) {
+                hits++;
+                return list;
+            }
+            misses++;
+        }
+
+        //Lists are normalized outside the lock, so a miss does not hold up the other threads.
+        WordList list = new WordList(key, language, this);
+        synchronized (this) {
+            if (list.weight <= maxWeight && lists.put(key, list) == null) {
+                weight += list.weight;
+                evict();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Weighs the given list again with the finder it keeps now, evicting lists if the cache is then too heavy.
+     */
+    private synchronized void reweigh(WordList list) {
+        FinderEntry entry = list.finder;
+        long listWeight = list.totalLetters + (entry == null ? 0 : entry.finder.getTableSize());
+        if (lists.get(list.key) == list) {
+            weight += listWeight - list.weight;
+            list.weight = listWeight;
+            evict();
+        } else {
+            list.weight = listWeight;
+        }
+    }
+
+    /**
+     * Evicts the least recently used lists until the cache is within its bound.
+     */
+    private void evict() {
+        Iterator<WordList> eldest = lists.values().iterator();
+        while (weight > maxWeight) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return The amount of lists found in the cache so far.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The amount of lists not found in the cache, and therefore normalized, so far.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The amount of lists evicted from the cache so far.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return The amount of lists the cache holds.
+     */
+    public synchronized int size() {
+        return lists.size();
+    }
+
+    /**
+     * Removes all the lists from the cache, keeping its counters.
+     */
+    public synchronized void clear() {
+        lists.clear();
+        weight = 0;
+    }
+
+    /**
+     * The class whose instances identify a word list by its language and its words.
+     */
+    private static class Key {
+        private final String[] words;
+        private final String language;
+        private final int hash;
+
+        private Key(String[] words, String language) {
+            this.words = words.clone(); //The caller may change its array after the list is cached.
+            this.language = language;
+            this.hash = 31 * Arrays.hashCode(words) + language.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && hash == ((Key) other).hash && language.equals(((Key) other).language)
+                    && Arrays.equals(words, ((Key) other).words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The class whose instances define a normalized word list: the words uppercased and without spaces, as strings and
+     * as code points, their placement order and the bounds the size of a puzzle of them is checked against. The arrays
+     * returned are shared by every user of the list and are not to be changed.
+     */
+    public static class WordList {
+        private final String[] words, letters;
+        private final int[][] codePoints;
+        private final int[] givenOrder, longestFirst;
+        private final int longestWordLength, longestLetterCount, shortestLetterCount;
+        private final long totalLetters;
+        private final String language;
+
+        /**
+         * The finder of the last blocklist asked for, kept with it.
+         */
+        private volatile FinderEntry finder;
+
+        /**
+         * The key and the cache of the list, and its weight in the cache, guarded by the cache.
+         */
+        private final Key key;
+        private final WordListCache cache;
+        private long weight;
+
+        private WordList(Key key, String language, WordListCache cache) {
+            String[] words = key.words;
+            this.key = key;
+            this.cache = cache;
+            this.words = words;
+            this.language = language;
+            this.letters = new String[words.length];
+            this.codePoints = new int[words.length][];
+            Integer[] order = new Integer[words.length];
+            long total = 0;
+            int shortest = words.length == 0 ? 0 : Integer.MAX_VALUE, longest = 0;
+            for (int i = 0; i < words.length; i++) {
+                letters[i] = Word.normalize(words[i], language);
+                codePoints[i] = letters[i].codePoints().toArray();
+                order[i] = i;
+                total += codePoints[i].length;
+                shortest = Math.min(shortest, codePoints[i].length);
+                longest = Math.max(longest, codePoints[i].length);
+            }
+            //Stable, so that words of the same length keep the order they are given in.
+            Arrays.sort(order, (a, b) -> codePoints[b].length - codePoints[a].length);
+            this.givenOrder = new int[words.length];
+            this.longestFirst = new int[words.length];
+            for (int i = 0; i < words.length; i++) {
+                givenOrder[i] = i;
+                longestFirst[i] = order[i];
+            }
+            this.totalLetters = total;
+            this.weight = total;
+            this.shortestLetterCount = shortest;
+            this.longestLetterCount = longest;
+            this.longestWordLength = Word.longestWordLength(words);
+        }
+
+        /**
+         * @return The words as given.
+         */
+        public String[] getWords() {
+            return words;
+        }
+
+        /**
+         * @return The words uppercased and without spaces, as placed in the puzzle.
+         */
+        public String[] getLetters() {
+            return letters;
+        }
+
+        /**
+         * @return The code points of each word uppercased and without spaces.
+         */
+        public int[][] getCodePoints() {
+            return codePoints;
+        }
+
+        /**
+         * @return The indices of the words in the order they are given in, the order they are placed randomly in.
+         */
+        public int[] getGivenOrder() {
+            return givenOrder;
+        }
+
+        /**
+         * @return The indices of the words from the one with the most letters to the one with the fewest, the order
+         *         that constrains a placement search the earliest.
+         */
+        public int[] getLongestFirst() {
+            return longestFirst;
+        }
+
+        /**
+         * @return The length of the longest word as given, spaces included, as found by {@link Word#longestWordLength(String[])}.
+         */
+        public int getLongestWordLength() {
+            return longestWordLength;
+        }
+
+        /**
+         * @return The letters of the longest word, the least size a side of the puzzle is to have.
+         */
+        public int getLongestLetterCount() {
+            return longestLetterCount;
+        }
+
+        /**
+         * @return The letters of the shortest word, or 0 if there are no words.
+         */
+        public int getShortestLetterCount() {
+            return shortestLetterCount;
+        }
+
+        /**
+         * @return The letters of all the words, the most cells they can cover.
+         */
+        public long getTotalLetters() {
+            return totalLetters;
+        }
+
+        /**
+         * Returns a finder of the words and of the words of the given blocklist, building it only if the last one asked
+         * for is of another blocklist. The words of the list are the first ones of the finder, in their order, and the
+         * words of the blocklist follow them.
+         * @param blocklist The words as given that are not to be spelled in the puzzle.
+         * @return The finder.
+         */
+        public WordFinder getFinder(String[] blocklist) {
+            FinderEntry entry = finder;
+            if (entry == null || entry.blocklist != blocklist) {
+                String[] found = Arrays.copyOf(letters, letters.length + blocklist.length);
+                for (int i = 0; i < blocklist.length; i++) {
+                    found[letters.length + i] = Word.normalize(blocklist[i], language);
+                }
+                //Built again by a thread racing another is the same finder, so neither has to wait for the other.
+                finder = entry = new FinderEntry(blocklist, new WordFinder(found));
+                cache.reweigh(this);
+            }
+            return entry.finder;
+        }
+    }
+
+    /**
+     * The class whose instances hold a finder with the blocklist it is built with.
+     */
+    private static class FinderEntry {
+        private final String[] blocklist;
+        private final WordFinder finder;
+
+        private FinderEntry(String[] blocklist, WordFinder finder) {
+            this.blocklist = blocklist;
+            this.finder = finder;
+        }
+    }
+}
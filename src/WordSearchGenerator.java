@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+
 /**
  * Main class of this project.
  */
@@ -9,30 +13,99 @@ public class WordSearchGenerator {
      * Creates a Word search puzzle from given settings and words in an input file, then writes it both to the console
      * and to the output file.
      *
-     * Takes two command line arguments, the first being the path to the input file and the second being to the output file.
+     * Takes two command line arguments, the first being the path to the input file and the second being to the output file,
+     * optionally followed by the generation settings described in {@link CommandLineOptions}.
      * Input file contains the settings in the first three lines:
      * 1- Size of the puzzle to be generated (e.g., 20x20)
-     * 2- The language set of the puzzle (Supported are: EN - English and TR - Turkish)
+     * 2- The language set of the puzzle (Shipped are: EN - English and TR - Turkish; see {@link AlphabetRegistry} for more)
      * 3- Whether the solution is requested to be shown after the puzzle (simply Yes or No)
      * Then in the next lines, words follow.
      *
      * If output file doesn't exist, it is created, and it is cleared in first parts of the program, before writing the output.
      *
+     * With -batch as the first argument, generates the puzzles of all the input files in a directory or manifest file
+     * in parallel instead, reporting each failing puzzle without stopping the others (see {@link BatchGenerator}).
+     * With -server port as the first arguments, keeps running as a local HTTP server generating the puzzles requested
+     * instead, until the program is stopped (see {@link PuzzleServer}). With -verify path as the first arguments,
+     * checks that every word of the puzzles at the given path can be found in its grid instead (see {@link BatchVerifier}).
+     *
      * @param args  Command line arguments.
      */
     public static void main(String[] args) {
 
-        if (args.length != 2) {
-            Error.errorMessage("Erroneous number of command line arguments!");
-        }
+        CommandLineOptions options = new CommandLineOptions(args);
+
+        try {
+            if (options.getBlocklistPath() != null) {
+                options.getSettings().setBlocklist(StreamingFileInput.readLines(options.getBlocklistPath(), "blocklist file"));
+            }
+
+            if (options.isBatch()) {
+                new BatchGenerator(options.getInputPath(), options.getOutputPath(), options.getSettings(), options.getThreadCount(), options.getStatsPath())
+                        .setArchivePath(options.getArchivePath()).setRenderers(options.getRenderers()).runAndReport();
+                return;
+            }
 
-        InputHelper input = new InputHelper(FileInput.readFile(args[0], true, true));
+            if (options.isVerify()) {
+                if (!new BatchVerifier(options.getInputPath(), options.getThreadCount())
+                        .setExtensions(options.getVerifiedExtensions()).runAndReport()) {
+                    Error.errorMessage("Some puzzles are not valid");
+                }
+                return;
+            }
 
-        FileOutput.writeToFile(args[1], "", false, false); //Clear the output file.
+            if (options.isServer()) {
+                PuzzleServer server = new PuzzleServer(options.getPort(), options.getSettings(), options.getThreadCount());
+                Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+                server.start();
+                System.out.println("Serving puzzles at http://localhost:" + server.getPort() + "/puzzle");
+                return;
+            }
 
-        WordSearchGrid puzzle = new WordSearchGrid(input.getWords(), input.getHeight(), input.getWidth(), input.getLanguage(), input.isShowHint());
+            //The input is streamed, so the words of a dictionary are sampled without reading it into memory at once.
+            InputHelper input;
+            if (options.getDictionaryPath() != null) {
+                String[] sampled = StreamingFileInput.sample(options.getDictionaryPath(), options.getSampleCount(), options.getSettings().newRandomizer());
+                input = StreamingFileInput.readInput(options.getInputPath(), sampled);
+            } else {
+                input = StreamingFileInput.readInput(options.getInputPath());
+            }
 
-        System.out.print(puzzle);
-        FileOutput.writeToFile(args[1], puzzle.toString(), true, false);
+            FileOutput.writeToFile(options.getOutputPath(), "", false, false); //Clear the output file.
+
+            GenerationStats stats = null;
+            if (options.getStatsPath() != null) {
+                stats = new GenerationStats(options.getInputPath());
+                options.getSettings().setListener(stats);
+            }
+
+            WordSearchGrid puzzle;
+            long start = System.nanoTime();
+            try {
+                puzzle = new WordSearchGrid(input.getWords(), input.getHeight(), input.getWidth(), input.getLanguage(), input.isShowHint(), options.getSettings());
+            } catch (RuntimeException e) {
+                if (stats != null) {
+                    stats.generationFailed(System.nanoTime() - start);
+                }
+                throw e;
+            } finally { //The statistics are written for failing puzzles too, as far as they have been collected.
+                if (stats != null) {
+                    GenerationStats.writeToFile(options.getStatsPath(), Collections.singletonList(stats));
+                }
+            }
+
+            //The puzzle is streamed to both the console, as text, and the output files, without putting its text together.
+            puzzle.writeTo(System.out, Charset.defaultCharset());
+            FileOutput.writeToFiles(options.getOutputPath(), puzzle, options.getRenderers());
+            if (options.getArchivePath() != null) {
+                try (PuzzleArchiveWriter archive = new PuzzleArchiveWriter(options.getArchivePath(), true)) {
+                    archive.write(puzzle);
+                }
+            }
+        } catch (PuzzleException e) {
+            Error.errorMessage(e.getMessage());
+        } catch (IOException e) {
+            Error.errorMessage((options.isServer() ? "Cannot start the server (" : "Cannot write the puzzle to the console (") + e.getMessage() + ")");
+        }
     }
 }
@@ -1,139 +1,546 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * The class representing a generated Word search grid, containing all its items and settings.
+ *
+ * The grid is kept packed: one char per cell in row-major order, and the solution as a bitset over the same cells
+ * marking the ones covered by words, which are shown in lowercase letters only when the solution is written. A letter
+ * of more than one char is kept as the char its {@link Alphabet} gives it, and written out as the letter.
  */
-public class WordSearchGrid implements Alphabets{
+public class WordSearchGrid {
     private List<Word> wordList;
-    private String[][] gridArray, hintArray;
+    private int height, width;
+    private char[] cells;
+    private BitSet solution;
     private String lan;
     private boolean isShowHint;
 
     /**
-     * Constructor for a Word search grid instance.
+     * The alphabet of the language, spelling the letters of more than one char; null if the language has none.
+     */
+    private Alphabet alphabet;
+
+    /**
+     * The layout shared by the renderers of this puzzle, computed the first time it is asked for.
+     */
+    private volatile PuzzleLayout layout;
+
+    /**
+     * Constructor for a Word search grid instance, generated with the default settings.
      * @param words         String array of words to be placed.
      * @param height        Height of the grid, in characters.
      * @param width         Width of the grid, in characters.
-     * @param lan           Language of the puzzle, currently either "EN" or "TR".
+     * @param lan           Language of the puzzle, one with an {@link Alphabet}, e.g. "EN" or "TR".
      * @param isShowHint    Boolean value of whether the solution is to be shown after the puzzle.
+     * @throws PuzzleException If the words cannot be placed in the grid.
      */
     public WordSearchGrid(String[] words, int height, int width, String lan, boolean isShowHint) {
+        this(words, height, width, lan, isShowHint, new GenerationSettings());
+    }
+
+    /**
+     * Constructor for a Word search grid instance.
+     * @param words         String array of words to be placed.
+     * @param height        Height of the grid, in characters.
+     * @param width         Width of the grid, in characters.
+     * @param lan           Language of the puzzle, one with an {@link Alphabet}, e.g. "EN" or "TR".
+     * @param isShowHint    Boolean value of whether the solution is to be shown after the puzzle.
+     * @param settings      Settings of how the puzzle is generated.
+     * @throws PuzzleException If the words cannot be placed in the grid.
+     */
+    public WordSearchGrid(String[] words, int height, int width, String lan, boolean isShowHint, GenerationSettings settings) {
+        this(words, height, width, lan, isShowHint, settings, null);
+    }
+
+    /**
+     * Constructor for a Word search grid instance, reusing the working state of the given context, so that generating
+     * many puzzles one after another only allocates the puzzles themselves.
+     * @param words         String array of words to be placed.
+     * @param height        Height of the grid, in characters.
+     * @param width         Width of the grid, in characters.
+     * @param lan           Language of the puzzle, one with an {@link Alphabet}, e.g. "EN" or "TR".
+     * @param isShowHint    Boolean value of whether the solution is to be shown after the puzzle.
+     * @param settings      Settings of how the puzzle is generated.
+     * @param context       The context to generate the puzzle with, not used by another generation meanwhile, or null
+     *                      to generate it with a context of its own.
+     * @throws PuzzleException If the words cannot be placed in the grid.
+     */
+    public WordSearchGrid(String[] words, int height, int width, String lan, boolean isShowHint, GenerationSettings settings, GeneratorContext context) {
 
         this.lan = lan;
+        long start = System.nanoTime();
+        GenerationListener listener = settings.getListener();
+        alphabet = AlphabetRegistry.get(lan);
+        if (alphabet == null) {
+            throw new PuzzleException("Unsupported language " + lan + " (There is no alphabet for it)");
+        }
+
+        GeneratorContext ownContext = context == null ? new GeneratorContext() : null;
+        if (ownContext != null) {
+            context = ownContext;
+        }
+        WordListCache.WordList normalized = context.wordList(words, lan);
 
         /* If either of the height and width values are small for the longest word to fit in, the approved sizes
         are updated as one character greater than the longest word's length. */
         int approvedHeight, approvedWidth;
-        int maxLength = Word.longestWordLength(words);
+        int maxLength = normalized.getLongestWordLength();
         approvedHeight = maxLength >= height ? maxLength + 1 : height;
         approvedWidth = maxLength >= width ? maxLength + 1 : width;
 
+        /* The words are checked against the size before they are placed, so a hopeless size fails at once instead of
+        after a whole placement search; an automatic size is the smallest one the words are likely to fit. */
+        FeasibilityAnalyzer analyzer = new FeasibilityAnalyzer(normalized.getLetters(),
+                settings.getPlacementMode() == PlacementMode.RANDOM ? normalized.getGivenOrder() : normalized.getLongestFirst(), alphabet,
+                settings.getDifficulty());
+        if (settings.isAutoSize()) {
+            FeasibilityAnalyzer.Feasibility likely = analyzer.smallestLikely(height, width);
+            approvedHeight = likely.getHeight();
+            approvedWidth = likely.getWidth();
+        }
+        //Checked on the final size, in long, so that neither a long word nor the automatic size gets past it.
+        if ((long) approvedHeight * approvedWidth > settings.getMaxCells()) {
+            throw new PuzzleException("Puzzle too large (A " + approvedHeight + "x" + approvedWidth + " grid is needed, at most "
+                    + settings.getMaxCells() + " cells are allowed)");
+        }
+        if (!settings.isAutoSize() && settings.getPlacementMode() != PlacementMode.DENSE && analyzer.analyze(approvedHeight, approvedWidth).isRejected()) {
+            FeasibilityAnalyzer.Feasibility likely = analyzer.smallestLikely(approvedHeight, approvedWidth);
+            throw new PuzzleException("The words do not fit a grid of this size (" + analyzer.getTotalLetters() + " letters in "
+                    + approvedHeight * approvedWidth + " cells; a " + likely.getHeight() + "x" + likely.getWidth() + " grid is likely to fit them)");
+        }
+
         wordList = new ArrayList<>();
-        gridArray = new String[approvedHeight][approvedWidth];
-        hintArray = new String[approvedHeight][approvedWidth];
         this.isShowHint = isShowHint;
 
-        /* More than 50 tries per word on average will be considered as an error, assuming there are no more places left
-         in the puzzle to place the words.
-         Personal note: To improve the program, a backtracking algorithm can be implemented where if there are enough
-         character spaces for all the words/characters to fit in, a limiting placement of a word can be replaced with a
-         fitting one, but that's just an idea crossed my mind. Maybe I will find a way to implement it in the future.
-         */
-        final int maxAttemptCount = words.length * 50;
-        int usedAttempts = 0;
+        /* Every placement is checked against one shared occupancy grid, so an attempt costs O(word length) no matter
+         how many words have been placed already, and no Word is created until its placement is fit. */
+        context.setDifficulty(settings.getDifficulty(), words.length);
+        OccupancyGrid occupancy = context.grid(approvedHeight, approvedWidth);
+        String[] letters = normalized.getLetters();
 
+        //All the random values of the puzzle are drawn from this source, so a seeded one gives the same puzzle again.
+        Randomizer randomizer = settings.newRandomizer();
+        CountingRandomizer countingRandomizer = null;
+        if (listener != null) {
+            randomizer = countingRandomizer = new CountingRandomizer(randomizer);
+        }
 
-        for (String word : words) {
-            boolean falselyOverlapped;
-            Word currentWord;
-            do { //Trial and error for random placements.
+        try {
+            CandidateFinder finder = context.finder(settings.getParallelism());
+            if (settings.getPlacementMode() == PlacementMode.BACKTRACKING) {
+                placeByBacktracking(words, letters, occupancy, finder, settings.getTimeBudgetMillis(), randomizer, listener, context);
+            } else if (settings.getPlacementMode() == PlacementMode.DENSE) {
+                //The grid may be shrunk to reach the target density, so the puzzle takes the size of the grid placed on.
+                occupancy = placeDensely(words, normalized, approvedHeight, approvedWidth, finder, settings, randomizer, listener, context);
+                approvedHeight = occupancy.getHeight();
+                approvedWidth = occupancy.getWidth();
+            } else {
+                placeRandomly(words, letters, occupancy, finder, randomizer, listener);
+            }
+        } finally {
+            if (ownContext != null) {
+                ownContext.close();
+            }
+        }
 
-                if (usedAttempts > maxAttemptCount){ //Test before each loop
-                    Error.errorMessage("Maximum amount of trials exceeded (either there are too many words or too small grid size, or by a small chance the randomizer insisted on finding unfit word placements)");
-                }
+        this.height = approvedHeight;
+        this.width = approvedWidth;
+        cells = new char[approvedHeight * approvedWidth];
+        solution = new BitSet(approvedHeight * approvedWidth);
 
-                falselyOverlapped = false;
-                currentWord = new Word(word, approvedHeight, approvedWidth, this.lan);
-                if (wordList.isEmpty()) { //Skip the rest of the do-while loop if this is the first word.
-                    break;
+        //Place the words, then fill the remaining spaces with random letters of the alphabet, drawn by their index.
+        AliasSampler sampler = alphabet.sampler(settings.isFrequencyFill());
+        for (int i = 0; i < approvedHeight; i++){
+            for (int j = 0; j < approvedWidth; j++){
+                if (occupancy.isEmpty(i, j)){
+                    cells[i * approvedWidth + j] = alphabet.letterAt(sampler.sample(randomizer));
+                } else {
+                    cells[i * approvedWidth + j] = occupancy.get(i, j);
+                    solution.set(i * approvedWidth + j);
                 }
+            }
+        }
+        if (settings.isUniqueFill()) {
+            UniqueFill.repair(cells, solution, approvedHeight, approvedWidth, normalized.getFinder(settings.getBlocklist()), alphabet, sampler, randomizer);
+        }
 
-                /* At the end of the below loop, if the newly created word is falsely overlapping any of the words,
-                 falselyOverlapped will be assigned true, but if it does not falsely overlap with neither of the words,
-                 it will remain false, determining if the placement is fit or not. */
-                for (Word word1 : wordList) {
-                    if (!currentWord.overlappable(word1)) {
-                        falselyOverlapped = true;
-                    }
-                }
+        if (listener != null) {
+            listener.generationFinished(approvedHeight, approvedWidth, occupancy.getFilledCellCount(), countingRandomizer.getDraws(), System.nanoTime() - start);
+        }
+    }
 
-                usedAttempts++;
-            } while (falselyOverlapped);
-            wordList.add(currentWord);
+    /**
+     * Constructor for a Word search grid instance from the parts of a puzzle generated before, e.g. read back from a
+     * {@link PuzzleArchiveReader}, without generating anything. The solution is derived from the words.
+     * @param cells         The characters of the cells in row-major order, uppercase; the array is kept, not copied.
+     * @param height        Height of the grid, in characters.
+     * @param width         Width of the grid, in characters.
+     * @param words         The words placed in the puzzle, in the order they are listed.
+     * @param lan           Language of the puzzle.
+     * @param isShowHint    Boolean value of whether the solution is to be shown after the puzzle.
+     * @throws PuzzleException If the cells do not fill the grid or a word leaves the grid.
+     */
+    public WordSearchGrid(char[] cells, int height, int width, List<Word> words, String lan, boolean isShowHint) {
+        if (height <= 0 || width <= 0 || cells.length != height * width) {
+            throw new PuzzleException("Invalid puzzle (The cells do not fill a " + height + "x" + width + " grid)");
         }
+        this.cells = cells;
+        this.height = height;
+        this.width = width;
+        this.lan = lan;
+        this.alphabet = AlphabetRegistry.get(lan);
+        this.isShowHint = isShowHint;
+        this.wordList = new ArrayList<>(words);
+        this.solution = new BitSet(height * width);
+        for (Word word : words) {
+            for (int k = 0; k < word.getLength(); k++) {
+                int row = word.rowAt(k), column = word.columnAt(k);
+                if (row < 0 || row >= height || column < 0 || column >= width) {
+                    throw new PuzzleException("Invalid puzzle (The word " + word.getWord() + " leaves the grid)");
+                }
+                solution.set(row * width + column);
+            }
+        }
+    }
+
+    /**
+     * Places the words one by one, each at a placement picked uniformly among all the placements that fit the grid at
+     * that moment, so no attempt is wasted on a conflicting placement.
+     * @param words       String array of words to be placed.
+     * @param letters     The words uppercased and without spaces.
+     * @param occupancy   The grid to place the words on.
+     * @param finder      The finder listing the fitting placements.
+     * @param randomizer  The random source of the placements.
+     * @param listener    The listener notified about each placed word, or null.
+     */
+    private void placeRandomly(String[] words, String[] letters, OccupancyGrid occupancy, CandidateFinder finder, Randomizer randomizer, GenerationListener listener) {
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
 
-        //Place the words first.
-        for (Word word : wordList) {
-            for (Map.Entry<Integer[], String> entry : word.getMapRepresentation().entrySet()) { //Place each character of the word to its location.
+            long start = System.nanoTime();
+            int placement = finder.pick(occupancy, letters[i], randomizer);
+            if (placement < 0) {
+                throw new PuzzleException("No place left for the word " + word + " (either there are too many words or too small grid size, BACKTRACKING placement mode may still find a placement)");
+            }
 
-                gridArray[entry.getKey()[0]][entry.getKey()[1]] = entry.getValue();
+            int row = occupancy.rowOf(placement), column = occupancy.columnOf(placement), rotation = OccupancyGrid.rotationOf(placement);
+            occupancy.place(letters[i], row, column, rotation);
+            wordList.add(new Word(word, letters[i], row, column, rotation, this.lan));
 
-                //In the word-placing part, place all the characters in lowercase letters.
-                hintArray[entry.getKey()[0]][entry.getKey()[1]] = entry.getValue().toLowerCase(new Locale(this.lan));
+            if (listener != null) {
+                //A picked placement always fits, so it is the only attempt and nothing is rejected.
+                listener.wordPlaced(word, finder.getFoundCount(), 1, 0, System.nanoTime() - start);
+            }
+        }
+    }
 
+    /**
+     * Places all the words with a {@link BacktrackingSolver}, so that the generation only fails if there is no way to
+     * place the words in the grid or the search takes longer than the time budget.
+     * @param words             String array of words to be placed.
+     * @param letters           The words uppercased and without spaces.
+     * @param occupancy         The grid to place the words on.
+     * @param finder            The finder listing the fitting placements.
+     * @param timeBudgetMillis  The time, in milliseconds, the search may take.
+     * @param randomizer        The random source of the order the placements are tried in.
+     * @param listener          The listener notified about each placed word, or null.
+     * @param context           The context whose placement lists the search reuses.
+     */
+    private void placeByBacktracking(String[] words, String[] letters, OccupancyGrid occupancy, CandidateFinder finder, long timeBudgetMillis, Randomizer randomizer, GenerationListener listener, GeneratorContext context) {
+        BacktrackingSolver solver = new BacktrackingSolver(occupancy, letters, finder, timeBudgetMillis, randomizer, context);
+        if (!solver.solve()) {
+            if (solver.isTimedOut()) {
+                throw new PuzzleException("Time budget exceeded (the placement search took longer than " + timeBudgetMillis + " ms)");
+            } else {
+                throw new PuzzleException("No placement exists (the words cannot be placed in a grid of this size)");
             }
         }
 
-        //Fill the remaining spaces with random characters from set alphabet.
-        for (int i = 0; i < approvedHeight; i++){
-            for (int j = 0; j < approvedWidth; j++){
-                if (gridArray[i][j] == null){
-                    gridArray[i][j] = Randomizer.randomElement(ALPHABETS.get(lan));
-                    hintArray[i][j] = gridArray[i][j];
-                }
+        for (int i = 0; i < words.length; i++) {
+            wordList.add(new Word(words[i], letters[i], solver.getRow(i), solver.getColumn(i), solver.getRotation(i), this.lan));
+            if (listener != null) {
+                listener.wordPlaced(words[i], solver.getCandidateCount(i), solver.getAttempts(i), solver.getRejections(i), solver.getNanos(i));
+            }
+        }
+    }
+
+    /**
+     * Places all the words with a {@link DensePlacer}, sharing as many letters as it finds between them and shrinking
+     * the grid while the share of the cells covered by words is less than the target density of the settings. If the
+     * words do not fit the grid that way, they are placed by backtracking instead.
+     * @param words             String array of words to be placed.
+     * @param normalized        The normalized form of the words.
+     * @param height            Height of the largest grid, in characters.
+     * @param width             Width of the largest grid, in characters.
+     * @param finder            The finder listing the fitting placements.
+     * @param settings          Settings of how the puzzle is generated.
+     * @param randomizer        The random source deciding between placements sharing as many letters.
+     * @param listener          The listener notified about each placed word, or null.
+     * @param context           The context whose grid and placement lists the search reuses.
+     * @return The grid the words are placed on.
+     */
+    private OccupancyGrid placeDensely(String[] words, WordListCache.WordList normalized, int height, int width, CandidateFinder finder, GenerationSettings settings, Randomizer randomizer, GenerationListener listener, GeneratorContext context) {
+        String[] letters = normalized.getLetters();
+        DensePlacer placer = new DensePlacer(letters, normalized.getLongestFirst(), finder, DensePlacer.DEFAULT_BEAM_WIDTH, settings.getTimeBudgetMillis(), randomizer, context);
+        OccupancyGrid grid = placer.place(height, width, settings.getTargetDensity(), Math.max(1, normalized.getLongestLetterCount()));
+        if (grid == null) {
+            if (placer.isTimedOut()) {
+                throw new PuzzleException("Time budget exceeded (the placement search took longer than " + settings.getTimeBudgetMillis() + " ms)");
+            }
+            //The beam only keeps the densest partial puzzles, so a grid too tight for them is left to the complete search.
+            grid = context.grid(height, width);
+            placeByBacktracking(words, letters, grid, finder, settings.getTimeBudgetMillis(), randomizer, listener, context);
+            return grid;
+        }
+
+        for (int i = 0; i < words.length; i++) {
+            wordList.add(new Word(words[i], letters[i], placer.getRow(i), placer.getColumn(i), placer.getRotation(i), this.lan));
+            if (listener != null) {
+                listener.wordPlaced(words[i], placer.getCandidateCount(i), placer.getAttempts(i), 0, placer.getNanos(i));
             }
         }
+        return grid;
     }
 
     /**
      * Returns this Word search puzzle, its words contained, and its solution (if isShowHint is set to true) in a String.
+     * Large puzzles are better written with {@link #writeTo(Writer)}, which does not hold the whole text in memory.
      *
      * @return The puzzle in a String with the words to find printed below it, and if isShowHint is set to true,
      *         the solution in lowercase letters.
      */
     public String toString(){
-        String output = "";
-
-        //Add all the elements into the String output.
-        for (int i = 0; i < gridArray.length; i++){
-            for (int j = 0; j < gridArray[i].length; j++){
-                output += j == gridArray[i].length - 1 ? gridArray[i][j] : gridArray[i][j] + " ";
-            }
-            output += i == gridArray.length - 1 ? "" : "\n";
+        StringWriter output = new StringWriter();
+        try {
+            writeTo(output);
+        } catch (IOException e) { //StringWriter does not throw IOException.
+            throw new UncheckedIOException(e);
         }
+        return output.toString();
+    }
+
+    /**
+     * Writes this Word search puzzle, its words contained, and its solution (if isShowHint is set to true) to the given
+     * writer, in the same text as {@link #toString()}. The text is streamed a row at a time through one reusable
+     * buffer, so it takes linear time and is never held in memory as a whole.
+     *
+     * @param writer The writer to write the puzzle to. It is neither flushed nor closed.
+     * @throws IOException If the writer fails.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        char[] buffer = new char[Math.max(64, width * 2)];
+
+        //Write all the rows of the grid, spelling out the letters of more than one char if there are any.
+        LetterTable spelled = alphabet != null && alphabet.hasComposites() ? new LetterTable(alphabet, null) : null;
+        writeGrid(writer, spelled, null, buffer);
 
-        output += "\n\n";
+        writer.write("\n\n");
 
-        //Add all the words to the output, listing them in lines.
+        //Write all the words, listing them in lines.
         for (int i = 0; i < wordList.size(); i++){
-            output += i != wordList.size() - 1 ? String.format("%s\n", wordList.get(i).getWord()) : wordList.get(i).getWord();
+            writer.write(wordList.get(i).getWord());
+            if (i != wordList.size() - 1) {
+                writer.write('\n');
+            }
         }
 
         if (isShowHint) {
-            output += "\n\n------------------------------\n\nThe solutions (in lowercase):\n\n";
+            writer.write("\n\n------------------------------\n\nThe solutions (in lowercase):\n\n");
+
+            // Write all the rows again, showing the words in lowercase letters.
+            writeGrid(writer, spelled, new LetterTable(alphabet, new Locale(lan)), buffer);
+        }
+    }
+
+    /**
+     * Writes this Word search puzzle to the given stream, in the same text as {@link #toString()}.
+     *
+     * @param stream  The stream to write the puzzle to. It is flushed, but not closed.
+     * @param charset The charset to encode the text with.
+     * @throws IOException If the stream fails.
+     */
+    public void writeTo(OutputStream stream, Charset charset) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, charset));
+        writeTo(writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes this Word search puzzle to the given channel, in the same text as {@link #toString()}.
+     *
+     * @param channel The channel to write the puzzle to. It is not closed.
+     * @param charset The charset to encode the text with.
+     * @throws IOException If the channel fails.
+     */
+    public void writeTo(WritableByteChannel channel, Charset charset) throws IOException {
+        Writer writer = new BufferedWriter(Channels.newWriter(channel, charset.newEncoder(), -1));
+        writeTo(writer);
+        writer.flush();
+    }
 
-            // Add all the elements of hintArray to the output, showing the words in lowercase letters.
-            for (int i = 0; i < hintArray.length; i++){
-                for (int j = 0; j < hintArray[i].length; j++){
-                    output += j == hintArray[i].length - 1 ? hintArray[i][j] : hintArray[i][j] + " ";
+    /**
+     * Writes the grid to the given writer, a row at a time, its cells separated by spaces and its rows by new lines.
+     *
+     * @param writer    The writer to write the grid to.
+     * @param spelled   The table to spell the cells with, or null to write them as they are.
+     * @param lowerCase The table to lowercase the cells of the solution with, or null to write them as the others.
+     * @param buffer    The buffer a row is put together in, at least twice as long as a row.
+     * @throws IOException If the writer fails.
+     */
+    private void writeGrid(Writer writer, LetterTable spelled, LetterTable lowerCase, char[] buffer) throws IOException {
+        for (int i = 0; i < height; i++){
+            int length = 0;
+            for (int j = 0; j < width; j++){
+                int index = i * width + j;
+                String letter = lowerCase != null && solution.get(index) ? lowerCase.get(cells[index])
+                        : spelled != null ? spelled.get(cells[index]) : null;
+                if (letter == null) {
+                    buffer[length++] = cells[index];
+                } else if (letter.length() != 1) {
+                    //A letter may be more than one character, as may lowercasing (e.g. İ outside of Turkish), so it is written as is.
+                    writer.write(buffer, 0, length);
+                    writer.write(letter);
+                    length = 0;
+                } else {
+                    buffer[length++] = letter.charAt(0);
                 }
-                output += i == hintArray.length - 1 ? "" : "\n";
+                buffer[length++] = j == width - 1 ? '\n' : ' ';
             }
+            //The last row is not followed by a new line.
+            writer.write(buffer, 0, i == height - 1 ? length - 1 : length);
+        }
+    }
+
+    /**
+     * Returns the layout of this puzzle, which all the {@link PuzzleRenderer}s write out. It is computed once, the first
+     * time it is asked for, since the puzzle does not change.
+     * @return The layout.
+     */
+    public PuzzleLayout getLayout() {
+        PuzzleLayout computed = layout;
+        if (computed == null) { //Two threads may both compute it, but they compute the same layout.
+            layout = computed = new PuzzleLayout(this);
+        }
+        return computed;
+    }
+
+    /**
+     * Writes this Word search puzzle to the given writer in the format of the given renderer.
+     * @param renderer The renderer of the format.
+     * @param writer   The writer to write the puzzle to. It is neither flushed nor closed.
+     * @throws IOException If the writer fails.
+     */
+    public void render(PuzzleRenderer renderer, Writer writer) throws IOException {
+        renderer.render(getLayout(), writer);
+    }
+
+    /**
+     * @return Height of the grid, in characters.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Width of the grid, in characters.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return The uppercase character at the given cell; for a letter of more than one char, the char its alphabet
+     *         gives it (see {@link #spell(char)}).
+     */
+    public char getCell(int row, int column) {
+        return cells[row * width + column];
+    }
+
+    /**
+     * @param cell The character of a cell, e.g. from {@link #getCell(int, int)}.
+     * @return The letter of the cell as it is written, which may be more than one char.
+     */
+    public String spell(char cell) {
+        return alphabet == null ? Character.toString(cell) : alphabet.spell(cell);
+    }
+
+    /**
+     * @param row    Row of the cell.
+     * @param column Column of the cell.
+     * @return True if the given cell is covered by a word, otherwise false.
+     */
+    public boolean isSolution(int row, int column) {
+        return solution.get(row * width + column);
+    }
+
+    /**
+     * @return The words placed in the puzzle, in the order they are listed.
+     */
+    public List<Word> getWords() {
+        return Collections.unmodifiableList(wordList);
+    }
+
+    /**
+     * @return Language of the puzzle.
+     */
+    public String getLanguage() {
+        return lan;
+    }
+
+    /**
+     * @return Boolean value of whether the solution is to be shown after the puzzle.
+     */
+    public boolean isShowHint() {
+        return isShowHint;
+    }
+
+    /**
+     * The class spelling the letters of a grid, and lowercasing them with respect to a language, each distinct letter
+     * only once.
+     */
+    private static class LetterTable {
+        private final Alphabet alphabet;
+        private final Locale locale;
+        private char[] letters = new char[0];
+        private String[] spellings = new String[0];
+
+        /**
+         * @param alphabet The alphabet to spell the letters with, or null to take each letter as its char.
+         * @param locale   The locale to lowercase the letters with, or null to leave them as they are.
+         */
+        private LetterTable(Alphabet alphabet, Locale locale) {
+            this.alphabet = alphabet;
+            this.locale = locale;
         }
 
-        return output;
+        private String get(char letter) {
+            for (int i = 0; i < letters.length; i++) {
+                if (letters[i] == letter) {
+                    return spellings[i];
+                }
+            }
+            letters = Arrays.copyOf(letters, letters.length + 1);
+            spellings = Arrays.copyOf(spellings, spellings.length + 1);
+            letters[letters.length - 1] = letter;
+            String spelling = alphabet == null ? Character.toString(letter) : alphabet.spell(letter);
+            return spellings[spellings.length - 1] = locale == null ? spelling : spelling.toLowerCase(locale);
+        }
     }
 }
@@ -0,0 +1,21 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DensePlacerTest {
+    private static final String[] WORDS = {"APPLE", "BANANA", "CHERRY", "DAMSON", "ELDERBERRY", "FIG", "GRAPE"};
+
+    @Test
+    void lowTargetDensityKeepsALargerGrid() {
+        WordSearchGrid sparse = generate(0.05), dense = generate(0.9);
+        assertTrue(sparse.getHeight() * sparse.getWidth() > dense.getHeight() * dense.getWidth(),
+                "A 5% target shrank to " + sparse.getHeight() + "x" + sparse.getWidth() + ", a 90% one to "
+                        + dense.getHeight() + "x" + dense.getWidth());
+        assertTrue(sparse.getWidth() > 2 * WORDS[4].length(), "A 5% target is met long before the longest word");
+    }
+
+    private static WordSearchGrid generate(double targetDensity) {
+        GenerationSettings settings = new GenerationSettings().setSeed(3L).setPlacementMode(PlacementMode.DENSE).setTargetDensity(targetDensity);
+        return new WordSearchGrid(WORDS, 30, 30, "EN", true, settings);
+    }
+}